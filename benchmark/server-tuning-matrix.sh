@@ -0,0 +1,98 @@
+#!/usr/bin/env bash
+#
+# Runs the employee endpoints under each app.server.tuning configuration and prints bytes-on-wire and
+# throughput per configuration. The application runs with the "inmemory" profile, so no Mongo server is needed.
+#
+# Usage: benchmark/server-tuning-matrix.sh
+#   SEED=500 DURATION=15 CONNECTIONS=64 PORT=8082 SKIP_BUILD=true benchmark/server-tuning-matrix.sh
+#
+# Throughput is measured with wrk when it is on the PATH. wrk only speaks HTTP/1.1, so the gzip+h2c row is measured
+# with h2load instead. Without the matching tool, parallel curl loops speaking the row's protocol are used (far less
+# precise).
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+SEED="${SEED:-200}"
+DURATION="${DURATION:-10}"
+CONNECTIONS="${CONNECTIONS:-32}"
+PORT="${PORT:-8082}"
+BASE_URL="http://localhost:${PORT}/api/employees"
+JAR="target/springboot-webflux-tutorials-0.0.1-SNAPSHOT.jar"
+WORKERS="$(getconf _NPROCESSORS_ONLN)"
+
+# name|application arguments
+CONFIGURATIONS=(
+    "baseline|--app.server.tuning.compression.enabled=false"
+    "gzip|--app.server.tuning.compression.enabled=true"
+    "gzip+epoll|--app.server.tuning.compression.enabled=true --app.server.tuning.event-loop.native-transport=required --app.server.tuning.event-loop.worker-threads=${WORKERS}"
+    "gzip+pooled-direct|--app.server.tuning.compression.enabled=true --app.server.tuning.allocator.enabled=true --app.server.tuning.allocator.prefer-direct=true"
+    "gzip+h2c|--app.server.tuning.compression.enabled=true --app.server.tuning.http2.h2c-enabled=true"
+    "gzip+keepalive-limits|--app.server.tuning.compression.enabled=true --app.server.tuning.connection.idle-timeout=5s --app.server.tuning.connection.max-keep-alive-requests=100"
+)
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+    mvn -B -q -DskipTests package
+fi
+
+bytes() {
+    curl -s -o /dev/null -w "%{size_download}" "$@"
+}
+
+# throughput URL [CURL_ARGS...], --http2-prior-knowledge in CURL_ARGS selects the h2c load tool
+throughput() {
+    local url="$1"
+    shift
+    if [ "${1:-}" = "--http2-prior-knowledge" ]; then
+        if command -v h2load >/dev/null; then
+            h2load -t2 -c"${CONNECTIONS}" -D"${DURATION}" -H "Accept-Encoding: gzip" "${url}" | awk '/^finished in/ {printf "%d", $4}'
+            return
+        fi
+    elif command -v wrk >/dev/null; then
+        wrk -t2 -c"${CONNECTIONS}" -d"${DURATION}s" -H "Accept-Encoding: gzip" "${url}" | awk '/Requests\/sec/ {printf "%d", $2}'
+        return
+    fi
+    local deadline=$(( $(date +%s) + DURATION )) counts
+    counts=$(for _ in $(seq 1 "${CONNECTIONS}"); do
+        (n=0; while [ "$(date +%s)" -lt "${deadline}" ]; do
+            curl -s -o /dev/null "$@" -H "Accept-Encoding: gzip" "${url}" && n=$((n + 1)); done; echo "${n}") &
+    done; wait)
+    echo "${counts}" | awk -v d="${DURATION}" '{s += $1} END {printf "%d", s / d}'
+}
+
+printf "%-22s %10s %10s %10s %10s %10s\n" "configuration" "all-plain" "all-gzip" "id-gzip" "all-req/s" "id-req/s"
+for configuration in "${CONFIGURATIONS[@]}"; do
+    name="${configuration%%|*}"
+    read -r -a args <<< "${configuration#*|}"
+    java -jar "${JAR}" --server.port="${PORT}" --spring.profiles.active=inmemory "${args[@]}" >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "${BASE_URL}/all"; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            printf "%-22s failed to start (see startup validation)\n" "${name}"
+            continue 2
+        fi
+        sleep 0.1
+    done
+
+    id=""
+    for i in $(seq 1 "${SEED}"); do
+        id=$(curl -s -X POST -H "Content-Type: application/json" \
+            -d "{\"firstName\":\"First${i}\",\"lastName\":\"Last${i}\",\"email\":\"employee${i}@example.com\"}" \
+            "${BASE_URL}" | sed -E 's/.*"id":"([^"]+)".*/\1/')
+    done
+
+    curl_args=()
+    if [ "${name}" = "gzip+h2c" ]; then
+        curl_args=(--http2-prior-knowledge)
+    fi
+    all_plain=$(bytes ${curl_args[@]+"${curl_args[@]}"} "${BASE_URL}/all")
+    all_gzip=$(bytes ${curl_args[@]+"${curl_args[@]}"} -H "Accept-Encoding: gzip" "${BASE_URL}/all")
+    id_gzip=$(bytes ${curl_args[@]+"${curl_args[@]}"} -H "Accept-Encoding: gzip" "${BASE_URL}/id/${id}")
+    all_rps=$(throughput "${BASE_URL}/all" ${curl_args[@]+"${curl_args[@]}"})
+    id_rps=$(throughput "${BASE_URL}/id/${id}" ${curl_args[@]+"${curl_args[@]}"})
+
+    printf "%-22s %10s %10s %10s %10s %10s\n" "${name}" "${all_plain}" "${all_gzip}" "${id_gzip}" "${all_rps}" "${id_rps}"
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+done
@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-successful-request and resident set size for the JVM, CDS and native builds.
+# The application runs with the "inmemory" profile, so no Mongo server (or network) is needed.
+#
+# Usage: benchmark/startup-benchmark.sh [jvm] [cds] [native]   (default: jvm cds)
+#   RUNS=5 PORT=8081 SKIP_BUILD=true benchmark/startup-benchmark.sh jvm cds native
+#
+# The native mode needs GraalVM (native-image on the PATH or GRAALVM_HOME set).
+# Linux and macOS are supported; RSS is read with ps after the first successful request.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8081}"
+PROFILE="inmemory"
+MAIN_CLASS="com.dilshan.springboot.SpringbootWebfluxTutorialsApplication"
+URL="http://localhost:${PORT}/api/employees/all"
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+    MODES=(jvm cds)
+fi
+
+now_millis() {
+    if date +%s%3N | grep -q N; then
+        perl -MTime::HiRes=time -e 'printf("%d\n", time() * 1000)'
+    else
+        date +%s%3N
+    fi
+}
+
+build() {
+    if [ "${SKIP_BUILD:-false}" = "true" ]; then
+        return
+    fi
+    case "$1" in
+        jvm) mvn -B -q -DskipTests package ;;
+        cds) mvn -B -q -DskipTests -Pcds -Dcds.training.profiles="${PROFILE}" package ;;
+        native) mvn -B -q -DskipTests -Pnative -Dspring-boot.aot.jvmArguments="-Dspring.profiles.active=${PROFILE}" native:compile ;;
+    esac
+}
+
+# Starts the application in the background and echoes its pid.
+start() {
+    local args=("--server.port=${PORT}" "--spring.profiles.active=${PROFILE}")
+    case "$1" in
+        jvm) java -jar target/springboot-webflux-tutorials-0.0.1-SNAPSHOT.jar "${args[@]}" >/dev/null 2>&1 & ;;
+        cds) (cd target/cds && exec java -XX:SharedArchiveFile=application.jsa -Xshare:auto \
+                -cp "application.jar:lib/*" "${MAIN_CLASS}" "${args[@]}") >/dev/null 2>&1 & ;;
+        native) target/springboot-webflux-tutorials "${args[@]}" >/dev/null 2>&1 & ;;
+    esac
+    echo $!
+}
+
+measure() {
+    local mode="$1" run="$2"
+    local started pid elapsed rss
+    started=$(now_millis)
+    pid=$(start "${mode}")
+    until curl -sf -o /dev/null "${URL}"; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            echo "${mode}: application exited before serving a request" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    elapsed=$(( $(now_millis) - started ))
+    rss=$(ps -o rss= -p "${pid}" | tr -d ' ')
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    printf "%-8s %4d %12d %10d\n" "${mode}" "${run}" "${elapsed}" "$(( rss / 1024 ))"
+}
+
+printf "%-8s %4s %12s %10s\n" "mode" "run" "first-req-ms" "rss-mb"
+for mode in "${MODES[@]}"; do
+    build "${mode}"
+    for run in $(seq 1 "${RUNS}"); do
+        measure "${mode}" "${run}"
+    done
+done
@@ -1,9 +1,19 @@
 package com.dilshan.springboot;
 
+import com.dilshan.springboot.config.EmployeeCacheProperties;
+import com.dilshan.springboot.config.EmployeeRuntimeHints;
+import com.dilshan.springboot.config.NettyServerTuningProperties;
+import com.dilshan.springboot.config.OutboxProperties;
+import com.dilshan.springboot.config.TenancyProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@EnableConfigurationProperties({EmployeeCacheProperties.class, NettyServerTuningProperties.class,
+        OutboxProperties.class, TenancyProperties.class})
+@ImportRuntimeHints(EmployeeRuntimeHints.class)
 public class SpringbootWebfluxTutorialsApplication {
 
 	public static void main(String[] args) {
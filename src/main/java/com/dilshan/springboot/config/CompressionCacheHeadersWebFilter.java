@@ -0,0 +1,55 @@
+package com.dilshan.springboot.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache headers for responses that {@link NettyServerTuningCustomizer} may compress. They vary by
+ * {@code Accept-Encoding}, and their ETags are made weak because the gzip and identity encodings share
+ * one validator. A 304 carries the validators of such a response, so it gets the same treatment.
+ */
+@Component
+@RequiredArgsConstructor
+public class CompressionCacheHeadersWebFilter implements WebFilter {
+
+    private final NettyServerTuningProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        NettyServerTuningProperties.Compression compression = this.properties.getCompression();
+        if (compression.isEnabled()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.beforeCommit(() -> {
+                HttpHeaders headers = response.getHeaders();
+                if (response.getStatusCode() == HttpStatus.NOT_MODIFIED
+                        || compression.isCompressible(headers.getFirst(HttpHeaders.CONTENT_TYPE))) {
+                    varyByAcceptEncoding(headers);
+                    String eTag = headers.getETag();
+                    if (eTag != null && !eTag.startsWith("W/")) {
+                        headers.setETag("W/" + eTag);
+                    }
+                }
+                return Mono.empty();
+            });
+        }
+        return chain.filter(exchange);
+    }
+
+    private static void varyByAcceptEncoding(HttpHeaders headers) {
+        List<String> vary = new ArrayList<>(headers.getVary());
+        if (vary.stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+            vary.add(HttpHeaders.ACCEPT_ENCODING);
+            headers.setVary(vary);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.dilshan.springboot.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching settings for the employee read endpoints.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.employees.cache")
+public class EmployeeCacheProperties {
+
+    /**
+     * Cache-Control for {@code GET /api/employees/id/{id}}.
+     */
+    private Endpoint byId = new Endpoint();
+
+    /**
+     * Cache-Control for {@code GET /api/employees/all}.
+     */
+    private Endpoint all = new Endpoint();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+
+        /**
+         * Whether clients must revalidate before reusing a response. Takes precedence over max-age.
+         */
+        private boolean noCache = true;
+
+        private Duration maxAge;
+
+        private boolean privateCache;
+
+        private boolean mustRevalidate;
+
+        public CacheControl toCacheControl() {
+            CacheControl cacheControl = this.noCache ? CacheControl.noCache()
+                    : this.maxAge != null ? CacheControl.maxAge(this.maxAge) : CacheControl.empty();
+            if (this.privateCache) {
+                cacheControl = cacheControl.cachePrivate();
+            }
+            if (this.mustRevalidate) {
+                cacheControl = cacheControl.mustRevalidate();
+            }
+            return cacheControl;
+        }
+    }
+}
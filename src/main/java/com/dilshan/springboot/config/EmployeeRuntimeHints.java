@@ -0,0 +1,33 @@
+package com.dilshan.springboot.config;
+
+import com.dilshan.springboot.dto.EmployeeChangeEventDto;
+import com.dilshan.springboot.dto.EmployeeDto;
+import com.dilshan.springboot.entity.Employee;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for the native image. Jackson binds {@link EmployeeDto} and
+ * {@link EmployeeChangeEventDto} through the Lombok generated accessors and the Mongo mapping
+ * layer instantiates and populates {@link Employee} and {@link EmployeeChangeEvent} reflectively,
+ * neither of which the AOT engine can see on its own.
+ */
+public class EmployeeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        this.bindingRegistrar.registerReflectionHints(hints.reflection(), EmployeeDto.class, Employee.class,
+                EmployeeChangeEventDto.class, EmployeeChangeEvent.class);
+        for (Class<?> documentType : new Class<?>[]{Employee.class, EmployeeChangeEvent.class}) {
+            hints.reflection().registerType(documentType,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.dilshan.springboot.config;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.util.function.BiPredicate;
+
+/**
+ * Applies {@link NettyServerTuningProperties} to the Reactor Netty server. Compression configured here
+ * replaces {@code server.compression}; brotli is negotiated in addition to gzip and deflate when
+ * brotli4j is on the classpath. The matching cache headers are set by {@link CompressionCacheHeadersWebFilter}.
+ */
+@Component
+@Slf4j
+public class NettyServerTuningCustomizer implements WebServerFactoryCustomizer<NettyReactiveWebServerFactory>, DisposableBean {
+
+    private final NettyServerTuningProperties properties;
+    private LoopResources loopResources;
+
+    public NettyServerTuningCustomizer(NettyServerTuningProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void customize(NettyReactiveWebServerFactory factory) {
+        factory.addServerCustomizers(this::tune);
+    }
+
+    private HttpServer tune(HttpServer httpServer) {
+        NettyServerTuningProperties.Compression compression = this.properties.getCompression();
+        if (compression.isEnabled()) {
+            httpServer = httpServer.compress(compressionPredicate(compression));
+        }
+
+        NettyServerTuningProperties.EventLoop eventLoop = this.properties.getEventLoop();
+        if (eventLoop.isCustomized()) {
+            int workerThreads = eventLoop.getWorkerThreads() != null ? eventLoop.getWorkerThreads() : LoopResources.DEFAULT_IO_WORKER_COUNT;
+            this.loopResources = eventLoop.getSelectThreads() != null
+                    ? LoopResources.create("employee-http", eventLoop.getSelectThreads(), workerThreads, true)
+                    : LoopResources.create("employee-http", workerThreads, true);
+            httpServer = httpServer.runOn(this.loopResources,
+                    eventLoop.getNativeTransport() != NettyServerTuningProperties.NativeTransport.DISABLED);
+        }
+
+        NettyServerTuningProperties.Allocator allocator = this.properties.getAllocator();
+        if (allocator.isEnabled()) {
+            PooledByteBufAllocator byteBufAllocator = new PooledByteBufAllocator(allocator.isPreferDirect(),
+                    allocator.getHeapArenas() != null ? allocator.getHeapArenas() : PooledByteBufAllocator.defaultNumHeapArena(),
+                    allocator.getDirectArenas() != null ? allocator.getDirectArenas() : PooledByteBufAllocator.defaultNumDirectArena(),
+                    allocator.getPageSize(),
+                    allocator.getMaxOrder(),
+                    PooledByteBufAllocator.defaultSmallCacheSize(),
+                    PooledByteBufAllocator.defaultNormalCacheSize(),
+                    PooledByteBufAllocator.defaultUseCacheForAllThreads());
+            httpServer = httpServer
+                    .option(ChannelOption.ALLOCATOR, byteBufAllocator)
+                    .childOption(ChannelOption.ALLOCATOR, byteBufAllocator);
+        }
+
+        if (this.properties.getHttp2().isH2cEnabled()) {
+            httpServer = httpServer.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+        }
+
+        NettyServerTuningProperties.Connection connection = this.properties.getConnection();
+        if (connection.getIdleTimeout() != null) {
+            httpServer = httpServer.idleTimeout(connection.getIdleTimeout());
+        }
+        if (connection.getMaxKeepAliveRequests() != null) {
+            httpServer = httpServer.maxKeepAliveRequests(connection.getMaxKeepAliveRequests());
+        }
+        httpServer = httpServer.childOption(ChannelOption.SO_KEEPALIVE, connection.isTcpKeepAlive());
+
+        log.info("Netty server tuning applied. Compression: {}, Event loops: {}, Pooled allocator: {}, h2c: {}",
+                compression.isEnabled(), eventLoop.isCustomized(), allocator.isEnabled(), this.properties.getHttp2().isH2cEnabled());
+        return httpServer;
+    }
+
+    private static BiPredicate<HttpServerRequest, HttpServerResponse> compressionPredicate(NettyServerTuningProperties.Compression compression) {
+        long minResponseSize = compression.getMinResponseSize().toBytes();
+        return (request, response) -> {
+            if (!compression.isCompressible(response.responseHeaders().get(HttpHeaders.CONTENT_TYPE))) {
+                return false;
+            }
+            // streamed bodies carry no length and are compressed, like Reactor Netty's own size threshold
+            String contentLength = response.responseHeaders().get(HttpHeaders.CONTENT_LENGTH);
+            return contentLength == null || Long.parseLong(contentLength) >= minResponseSize;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        if (this.loopResources != null) {
+            this.loopResources.disposeLater().block();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.dilshan.springboot.config;
+
+import io.netty.channel.epoll.Epoll;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reactor Netty settings for the WebFlux server. Unset values keep the Reactor Netty defaults.
+ * Invalid combinations fail the startup with a binding validation error.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.server.tuning")
+public class NettyServerTuningProperties {
+
+    @Valid
+    private Compression compression = new Compression();
+
+    @Valid
+    private EventLoop eventLoop = new EventLoop();
+
+    @Valid
+    private Allocator allocator = new Allocator();
+
+    @Valid
+    private Http2 http2 = new Http2();
+
+    @Valid
+    private Connection connection = new Connection();
+
+    @Getter
+    @Setter
+    public static class Compression {
+
+        private boolean enabled;
+
+        /**
+         * Responses smaller than this are sent uncompressed.
+         */
+        @NotNull
+        private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+        @NotEmpty
+        private List<String> mimeTypes = List.of("application/json", "text/plain");
+
+        @AssertTrue(message = "min-response-size must not be negative")
+        public boolean isMinResponseSizeValid() {
+            return this.minResponseSize == null || !this.minResponseSize.isNegative();
+        }
+
+        public boolean isCompressible(String contentType) {
+            if (contentType == null) {
+                return false;
+            }
+            try {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                return this.mimeTypes.stream().anyMatch(mimeType -> MediaType.parseMediaType(mimeType).isCompatibleWith(mediaType));
+            } catch (InvalidMediaTypeException ex) {
+                return false;
+            }
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class EventLoop {
+
+        /**
+         * Threads accepting connections. Unset shares the worker threads.
+         */
+        @Min(1)
+        private Integer selectThreads;
+
+        /**
+         * Threads handling I/O. Unset uses the number of available processors.
+         */
+        @Min(1)
+        private Integer workerThreads;
+
+        private NativeTransport nativeTransport = NativeTransport.AUTO;
+
+        public boolean isCustomized() {
+            return this.selectThreads != null || this.workerThreads != null || this.nativeTransport != NativeTransport.AUTO;
+        }
+
+        @AssertTrue(message = "native-transport is REQUIRED but epoll is not available on this platform")
+        public boolean isNativeTransportAvailable() {
+            return this.nativeTransport != NativeTransport.REQUIRED || Epoll.isAvailable();
+        }
+    }
+
+    public enum NativeTransport {
+        /**
+         * Use epoll when it is available, NIO otherwise.
+         */
+        AUTO,
+        /**
+         * Fail at startup when epoll is not available.
+         */
+        REQUIRED,
+        /**
+         * Always use NIO.
+         */
+        DISABLED
+    }
+
+    @Getter
+    @Setter
+    public static class Allocator {
+
+        /**
+         * Whether to install a pooled allocator configured with the settings below.
+         */
+        private boolean enabled;
+
+        private boolean preferDirect = true;
+
+        @Min(0)
+        private Integer heapArenas;
+
+        @Min(0)
+        private Integer directArenas;
+
+        @Min(4096)
+        private int pageSize = 8192;
+
+        @Min(0)
+        @Max(14)
+        private int maxOrder = 9;
+
+        @AssertTrue(message = "page-size must be a power of two")
+        public boolean isPageSizePowerOfTwo() {
+            return Integer.bitCount(this.pageSize) == 1;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Http2 {
+
+        /**
+         * Accept HTTP/2 over cleartext (h2c) next to HTTP/1.1.
+         */
+        private boolean h2cEnabled;
+    }
+
+    @Getter
+    @Setter
+    public static class Connection {
+
+        /**
+         * Close connections that stay idle for longer than this. Unset keeps them open.
+         */
+        private Duration idleTimeout;
+
+        /**
+         * Requests served over one keep-alive connection before it is closed. Unset means no limit.
+         */
+        @Min(1)
+        private Integer maxKeepAliveRequests;
+
+        /**
+         * Enables TCP keep-alive probes on accepted connections.
+         */
+        private boolean tcpKeepAlive = true;
+
+        @AssertTrue(message = "idle-timeout must be positive")
+        public boolean isIdleTimeoutValid() {
+            return this.idleTimeout == null || (!this.idleTimeout.isNegative() && !this.idleTimeout.isZero());
+        }
+    }
+}
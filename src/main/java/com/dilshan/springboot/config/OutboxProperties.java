@@ -0,0 +1,57 @@
+package com.dilshan.springboot.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Employee change feed settings.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /**
+     * Most events delivered in one server-sent event.
+     */
+    @Min(1)
+    private int batchSize = 100;
+
+    /**
+     * How often each tenant's outbox is checked for new events while it has subscribers.
+     */
+    @NotNull
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Concurrent change feed subscribers per tenant; more are rejected with 429.
+     */
+    @Min(1)
+    private int maxSubscribersPerTenant = 256;
+
+    /**
+     * Interval of keepalive comments on idle change feeds, so proxies keep them open and vanished
+     * clients are noticed and release their subscriber slot.
+     */
+    @NotNull
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * How long a write keeps retrying transactions that conflict on the tenant's outbox sequence.
+     */
+    @NotNull
+    private Duration transactionRetryTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long outbox events are kept before Mongo expires them.
+     */
+    @NotNull
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,49 @@
+package com.dilshan.springboot.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tenant resolution and per-tenant resource budgets.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.tenancy")
+public class TenancyProperties {
+
+    /**
+     * Tenants accepted in the tenant header, besides the default tenant.
+     */
+    private Set<String> allowedTenants = new HashSet<>();
+
+    /**
+     * Accept any well-formed tenant id instead of only {@link #allowedTenants}. For local and development
+     * use only: every new id gets its own collections and budgets.
+     */
+    private boolean allowUnlistedTenants;
+
+    /**
+     * Database operations one tenant may have in flight before further requests are rejected with 429.
+     * Keep the sum over busy tenants below the Mongo connection pool size.
+     */
+    @Min(1)
+    private int maxInFlightPerTenant = 32;
+
+    /**
+     * Per-tenant overrides of {@link #maxInFlightPerTenant}.
+     */
+    private Map<String, Integer> maxInFlight = new HashMap<>();
+
+    public int getMaxInFlight(String tenantId) {
+        return this.maxInFlight.getOrDefault(tenantId, this.maxInFlightPerTenant);
+    }
+}
@@ -1,14 +1,29 @@
 package com.dilshan.springboot.controller;
 
+import com.dilshan.springboot.config.EmployeeCacheProperties;
+import com.dilshan.springboot.config.OutboxProperties;
+import com.dilshan.springboot.config.TenancyProperties;
+import com.dilshan.springboot.dto.EmployeeChangeEventDto;
 import com.dilshan.springboot.dto.EmployeeDto;
+import com.dilshan.springboot.exception.ChangeFeedGapException;
 import com.dilshan.springboot.service.EmployeeService;
+import com.dilshan.springboot.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/employees")
 @Slf4j
@@ -16,36 +31,116 @@ import reactor.core.publisher.Mono;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeCacheProperties cacheProperties;
+    private final TenancyProperties tenancyProperties;
+    private final OutboxProperties outboxProperties;
 
     @PostMapping
     @ResponseStatus(value = HttpStatus.CREATED)
-    public Mono<EmployeeDto> saveEmployee(@RequestBody EmployeeDto employeeDto) {
+    public Mono<EmployeeDto> saveEmployee(@RequestBody EmployeeDto employeeDto, @RequestHeader(value = TenantContext.TENANT_HEADER, required = false) String tenantHeader) {
         log.info("Save Employee: {}", employeeDto.toString());
-        return this.employeeService.saveEmployee(employeeDto);
+        String tenantId = TenantContext.resolveTenant(tenantHeader, this.tenancyProperties);
+        return this.employeeService.saveEmployee(employeeDto)
+                .contextWrite(context -> TenantContext.withTenant(context, tenantId));
     }
 
     @GetMapping("/id/{id}")
-    public Mono<EmployeeDto> getEmplooyeeById(@PathVariable("id") String id) {
+    public Mono<ResponseEntity<EmployeeDto>> getEmplooyeeById(@PathVariable("id") String id, @RequestHeader(value = TenantContext.TENANT_HEADER, required = false) String tenantHeader,
+                                                           ServerHttpRequest request) {
         log.info("Get Employee by id: {}", id);
-        return this.employeeService.getEmployeeById(id);
+        String tenantId = TenantContext.resolveTenant(tenantHeader, this.tenancyProperties);
+        CacheControl cacheControl = this.cacheProperties.getById().toCacheControl();
+        Mono<ResponseEntity<EmployeeDto>> employee = Mono.defer(() -> this.employeeService.getEmployeeById(id))
+                .map(employeeDto -> ResponseEntity.ok().eTag(eTag(employeeDto)).cacheControl(cacheControl)
+                        .varyBy(TenantContext.TENANT_HEADER).body(employeeDto));
+        if (request.getHeaders().getIfNoneMatch().isEmpty()) {
+            return employee.contextWrite(context -> TenantContext.withTenant(context, tenantId));
+        }
+        // only the version is read to answer If-None-Match; the document is loaded when it has changed
+        return this.employeeService.getEmployeeVersion(id)
+                .map(EmployeeController::versionETag)
+                .filter(versionETag -> isNotModified(request, versionETag))
+                .map(versionETag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(versionETag).cacheControl(cacheControl)
+                        .varyBy(TenantContext.TENANT_HEADER).<EmployeeDto>build())
+                .switchIfEmpty(employee)
+                .contextWrite(context -> TenantContext.withTenant(context, tenantId));
     }
 
     @GetMapping("/all")
-    public Flux<EmployeeDto> getEmplooyeeById() {
+    public Mono<ResponseEntity<Flux<EmployeeDto>>> getEmplooyeeById(@RequestHeader(value = TenantContext.TENANT_HEADER, required = false) String tenantHeader) {
         log.info("Get All Employees");
-        return this.employeeService.getAllEmployees();
+        String tenantId = TenantContext.resolveTenant(tenantHeader, this.tenancyProperties);
+        // read before querying, so a concurrent write can only make the ETag older than the body
+        return this.employeeService.getEmployeesVersion(tenantId)
+                .map(employeesVersion -> ResponseEntity.ok()
+                        .eTag("\"c" + employeesVersion + "\"")
+                        .cacheControl(this.cacheProperties.getAll().toCacheControl())
+                        .varyBy(TenantContext.TENANT_HEADER)
+                        .body(this.employeeService.getAllEmployees()
+                                .contextWrite(context -> TenantContext.withTenant(context, tenantId))));
     }
 
     @PutMapping("/id/{id}")
-    public Mono<EmployeeDto> updateEmployee(@RequestBody EmployeeDto employeeDto, @PathVariable("id") String id) {
+    public Mono<EmployeeDto> updateEmployee(@RequestBody EmployeeDto employeeDto, @PathVariable("id") String id,
+                                            @RequestHeader(value = TenantContext.TENANT_HEADER, required = false) String tenantHeader) {
         log.info("Update Employee. ID: {} Employee: {}", id, employeeDto.toString());
-        return this.employeeService.updateEmployee(employeeDto, id);
+        String tenantId = TenantContext.resolveTenant(tenantHeader, this.tenancyProperties);
+        return this.employeeService.updateEmployee(employeeDto, id)
+                .contextWrite(context -> TenantContext.withTenant(context, tenantId));
     }
 
     @DeleteMapping("/id/{id}")
     @ResponseStatus(value = HttpStatus.NO_CONTENT)
-    public Mono<Void> deleteEmployeeById(@PathVariable("id") String id) {
+    public Mono<Void> deleteEmployeeById(@PathVariable("id") String id, @RequestHeader(value = TenantContext.TENANT_HEADER, required = false) String tenantHeader) {
         log.info("Delete Employee by id: {}", id);
-        return this.employeeService.deleteEmployee(id);
+        String tenantId = TenantContext.resolveTenant(tenantHeader, this.tenancyProperties);
+        return this.employeeService.deleteEmployee(id)
+                .contextWrite(context -> TenantContext.withTenant(context, tenantId));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<List<EmployeeChangeEventDto>>> getEmployeeChanges(@RequestParam(value = "after", required = false) Long after,
+                                                                               @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                                                               @RequestHeader(value = TenantContext.TENANT_HEADER, required = false) String tenantHeader) {
+        log.info("Get Employee changes. After: {} Last-Event-ID: {}", after, lastEventId);
+        String tenantId = TenantContext.resolveTenant(tenantHeader, this.tenancyProperties);
+        // a reconnecting EventSource resumes from the last batch it received
+        Long afterOffset = lastEventId != null ? lastEventId : after;
+        Flux<ServerSentEvent<List<EmployeeChangeEventDto>>> heartbeats = Flux.interval(this.outboxProperties.getHeartbeatInterval())
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<List<EmployeeChangeEventDto>>builder().comment("keepalive").build());
+        // prefetch 1 keeps the one batch bound of the relay; heartbeats stop with the change stream
+        return this.employeeService.getEmployeeChanges(tenantId, afterOffset)
+                .map(changeEvents -> ServerSentEvent.builder(changeEvents)
+                        .id(Long.toString(changeEvents.get(changeEvents.size() - 1).getOffset()))
+                        .event("employee-changes")
+                        .build())
+                .publish(changes -> Flux.merge(1, changes, heartbeats.takeUntilOther(changes.ignoreElements())), 1)
+                // the client has missed changes it cannot get from the feed; it must reload /all and resume
+                // after the offset in that response's ETag
+                .onErrorResume(ChangeFeedGapException.class, ex -> Flux.just(
+                        ServerSentEvent.<List<EmployeeChangeEventDto>>builder(List.of())
+                                .event("reset")
+                                .comment(ex.getMessage())
+                                .build()));
+    }
+
+    private static String eTag(EmployeeDto employeeDto) {
+        if (employeeDto.getVersion() != null) {
+            return versionETag(employeeDto.getVersion());
+        }
+        // documents written before versioning was introduced fall back to a content hash
+        String content = employeeDto.getId() + "|" + employeeDto.getFirstName() + "|" + employeeDto.getLastName() + "|" + employeeDto.getEmail();
+        return "\"h" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static String versionETag(Long version) {
+        return "\"v" + version + "\"";
+    }
+
+    private static boolean isNotModified(ServerHttpRequest request, String eTag) {
+        return request.getHeaders().getIfNoneMatch().stream()
+                .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
     }
 }
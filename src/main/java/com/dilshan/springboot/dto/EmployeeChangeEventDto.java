@@ -0,0 +1,22 @@
+package com.dilshan.springboot.dto;
+
+import com.dilshan.springboot.entity.EmployeeChangeType;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeChangeEventDto {
+    private long offset;
+    private EmployeeChangeType type;
+    private String employeeId;
+    private Long version;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Instant occurredAt;
+}
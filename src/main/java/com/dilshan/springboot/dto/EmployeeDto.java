@@ -1,5 +1,6 @@
 package com.dilshan.springboot.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 @Getter
@@ -12,4 +13,6 @@ public class EmployeeDto {
     private String firstName;
     private String lastName;
     private String email;
+    @JsonIgnore
+    private Long version;
 }
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Setter
@@ -19,4 +20,6 @@ public class Employee {
     private String firstName;
     private String lastName;
     private String email;
+    @Version
+    private Long version;
 }
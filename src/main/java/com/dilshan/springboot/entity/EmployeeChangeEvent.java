@@ -0,0 +1,33 @@
+package com.dilshan.springboot.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Outbox record of one employee change, written in the same transaction as the change itself.
+ * {@code offset} increases strictly per tenant in commit order and is what subscribers resume from.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "employee_outbox")
+public class EmployeeChangeEvent {
+
+    @Id
+    private String id;
+    private long offset;
+    private EmployeeChangeType type;
+    private String employeeId;
+    private Long employeeVersion;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Instant occurredAt;
+}
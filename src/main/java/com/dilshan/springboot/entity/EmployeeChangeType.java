@@ -0,0 +1,7 @@
+package com.dilshan.springboot.entity;
+
+public enum EmployeeChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
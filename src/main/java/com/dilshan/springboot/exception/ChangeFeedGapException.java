@@ -0,0 +1,9 @@
+package com.dilshan.springboot.exception;
+
+public class ChangeFeedGapException extends RuntimeException {
+
+    public ChangeFeedGapException(String tenantId, long afterOffset) {
+        super("Tenant '" + tenantId + "' change feed cannot resume after offset " + afterOffset
+                + ": the events after it have expired or the offset is unknown");
+    }
+}
@@ -0,0 +1,12 @@
+package com.dilshan.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTenantException extends RuntimeException {
+
+    public InvalidTenantException(String tenantId, String reason) {
+        super("Invalid tenant '" + tenantId + "': " + reason);
+    }
+}
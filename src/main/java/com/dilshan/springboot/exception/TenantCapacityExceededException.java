@@ -0,0 +1,12 @@
+package com.dilshan.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TenantCapacityExceededException extends RuntimeException {
+
+    public TenantCapacityExceededException(String tenantId) {
+        super("Tenant '" + tenantId + "' has too many requests in flight");
+    }
+}
@@ -0,0 +1,12 @@
+package com.dilshan.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManySubscribersException extends RuntimeException {
+
+    public TooManySubscribersException(String tenantId) {
+        super("Tenant '" + tenantId + "' has too many change feed subscribers");
+    }
+}
@@ -0,0 +1,35 @@
+package com.dilshan.springboot.mapper;
+
+import com.dilshan.springboot.dto.EmployeeChangeEventDto;
+import com.dilshan.springboot.entity.Employee;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import com.dilshan.springboot.entity.EmployeeChangeType;
+
+import java.time.Instant;
+
+public class EmployeeChangeEventMapper {
+    public static EmployeeChangeEvent mapToEmployeeChangeEvent(EmployeeChangeType type, Employee employee, EmployeeChangeEvent changeEvent) {
+        changeEvent.setType(type);
+        changeEvent.setEmployeeId(employee.getId());
+        changeEvent.setEmployeeVersion(employee.getVersion());
+        if (type != EmployeeChangeType.DELETED) {
+            changeEvent.setFirstName(employee.getFirstName());
+            changeEvent.setLastName(employee.getLastName());
+            changeEvent.setEmail(employee.getEmail());
+        }
+        changeEvent.setOccurredAt(Instant.now());
+        return changeEvent;
+    }
+
+    public static EmployeeChangeEventDto mapToEmployeeChangeEventDto(EmployeeChangeEvent changeEvent, EmployeeChangeEventDto changeEventDto) {
+        changeEventDto.setOffset(changeEvent.getOffset());
+        changeEventDto.setType(changeEvent.getType());
+        changeEventDto.setEmployeeId(changeEvent.getEmployeeId());
+        changeEventDto.setVersion(changeEvent.getEmployeeVersion());
+        changeEventDto.setFirstName(changeEvent.getFirstName());
+        changeEventDto.setLastName(changeEvent.getLastName());
+        changeEventDto.setEmail(changeEvent.getEmail());
+        changeEventDto.setOccurredAt(changeEvent.getOccurredAt());
+        return changeEventDto;
+    }
+}
@@ -9,6 +9,7 @@ public class EmployeeMapper {
         employeeDto.setFirstName(employee.getFirstName());
         employeeDto.setLastName(employee.getLastName());
         employeeDto.setEmail(employee.getEmail());
+        employeeDto.setVersion(employee.getVersion());
         return employeeDto;
     }
 
@@ -17,6 +18,7 @@ public class EmployeeMapper {
         employee.setFirstName(employeeDto.getFirstName());
         employee.setLastName(employeeDto.getLastName());
         employee.setEmail(employeeDto.getEmail());
+        employee.setVersion(employeeDto.getVersion());
         return employee;
     }
 }
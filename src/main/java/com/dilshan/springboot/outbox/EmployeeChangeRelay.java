@@ -0,0 +1,124 @@
+package com.dilshan.springboot.outbox;
+
+import com.dilshan.springboot.config.OutboxProperties;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import com.dilshan.springboot.exception.ChangeFeedGapException;
+import com.dilshan.springboot.exception.TenantCapacityExceededException;
+import com.dilshan.springboot.exception.TooManySubscribersException;
+import com.dilshan.springboot.repository.EmployeeOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays outbox events to change feed subscribers. Each tenant has one shared poller that watches the
+ * latest outbox offset while anyone is subscribed; every subscriber keeps its own cursor and reads the
+ * events after it in batches of {@code app.outbox.batch-size}, fetching the next batch only once the
+ * previous one has been taken downstream. A slow subscriber therefore holds at most one batch beyond what
+ * it has requested and the newest offset it has not caught up to, however far behind it falls.
+ * <p>
+ * Outbox reads count against the tenant's bulkhead. A subscription whose start offset cannot be read is
+ * rejected; after that, a rejected poll is skipped and a rejected batch is retried after the poll interval,
+ * so a tenant at its budget slows its own feeds down without ending them.
+ * <p>
+ * Offsets are contiguous, so a feed that cannot continue from its cursor fails with
+ * {@link ChangeFeedGapException} rather than skip ahead: when the resume offset is beyond the latest one,
+ * or when the events after the cursor have already expired from the outbox.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeChangeRelay {
+
+    private final EmployeeOutboxRepository outboxRepository;
+    private final OutboxProperties outboxProperties;
+    private final Map<String, TenantFeed> feeds = new ConcurrentHashMap<>();
+
+    /**
+     * Streams the tenant's change events after {@code afterOffset}, or only new ones when it is {@code null}.
+     */
+    public Flux<List<EmployeeChangeEvent>> changes(String tenantId, Long afterOffset) {
+        return Flux.defer(() -> {
+            TenantFeed feed = subscribe(tenantId);
+            // an offset the outbox has not reached yet was issued before a reset, or for another tenant
+            Mono<Long> startOffset = afterOffset == null ? this.outboxRepository.latestOffset(tenantId)
+                    : this.outboxRepository.latestOffset(tenantId)
+                    .flatMap(latestOffset -> afterOffset > latestOffset
+                            ? Mono.error(new ChangeFeedGapException(tenantId, afterOffset))
+                            : Mono.just(afterOffset));
+            return startOffset.flatMapMany(offset -> {
+                        AtomicLong cursor = new AtomicLong(offset);
+                        return feed.latestOffsets
+                                .onBackpressureLatest()
+                                .concatMap(latestOffset -> drain(tenantId, cursor, latestOffset), 1);
+                    })
+                    .doFinally(signalType -> unsubscribe(tenantId));
+        });
+    }
+
+    public int getSubscribers(String tenantId) {
+        TenantFeed feed = this.feeds.get(tenantId);
+        return feed == null ? 0 : feed.subscribers;
+    }
+
+    private Flux<Long> latestOffsets(String tenantId) {
+        return Flux.interval(Duration.ZERO, this.outboxProperties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> this.outboxRepository.latestOffset(tenantId)
+                        .onErrorResume(TenantCapacityExceededException.class, ex -> Mono.empty()), 1)
+                .distinctUntilChanged()
+                .replay(1)
+                .refCount();
+    }
+
+    private Flux<List<EmployeeChangeEvent>> drain(String tenantId, AtomicLong cursor, long latestOffset) {
+        if (cursor.get() >= latestOffset) {
+            return Flux.empty();
+        }
+        return Mono.defer(() -> this.outboxRepository.findAfter(tenantId, cursor.get(), this.outboxProperties.getBatchSize()).collectList())
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, this.outboxProperties.getPollInterval())
+                        .filter(TenantCapacityExceededException.class::isInstance))
+                .flatMap(batch -> {
+                    // the next offset is missing, or nothing is left up to the latest one: those events expired
+                    if (batch.isEmpty() || batch.get(0).getOffset() != cursor.get() + 1) {
+                        return Mono.error(new ChangeFeedGapException(tenantId, cursor.get()));
+                    }
+                    cursor.set(batch.get(batch.size() - 1).getOffset());
+                    return Mono.just(batch);
+                })
+                .repeat(() -> cursor.get() < latestOffset);
+    }
+
+    // a tenant's feed, with its poller, only exists while the tenant has subscribers
+    private TenantFeed subscribe(String tenantId) {
+        return this.feeds.compute(tenantId, (id, feed) -> {
+            TenantFeed tenantFeed = feed != null ? feed : new TenantFeed(latestOffsets(id));
+            if (tenantFeed.subscribers >= this.outboxProperties.getMaxSubscribersPerTenant()) {
+                throw new TooManySubscribersException(id);
+            }
+            tenantFeed.subscribers++;
+            return tenantFeed;
+        });
+    }
+
+    private void unsubscribe(String tenantId) {
+        this.feeds.computeIfPresent(tenantId, (id, feed) -> --feed.subscribers == 0 ? null : feed);
+    }
+
+    private static class TenantFeed {
+        private final Flux<Long> latestOffsets;
+        // only changed inside compute on the feeds map
+        private volatile int subscribers;
+
+        TenantFeed(Flux<Long> latestOffsets) {
+            this.latestOffsets = latestOffsets;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.dilshan.springboot.repository;
+
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-tenant outbox of employee change events. {@link #append} is meant to run inside the transaction
+ * of the change it records; offsets are assigned in commit order, starting at 1.
+ */
+public interface EmployeeOutboxRepository {
+
+    /**
+     * Creates the tenant's outbox storage and indexes if needed. Runs outside any transaction and must
+     * complete before the tenant's first {@link #append}.
+     */
+    Mono<Void> prepare(String tenantId);
+
+    Mono<EmployeeChangeEvent> append(String tenantId, EmployeeChangeEvent changeEvent);
+
+    Flux<EmployeeChangeEvent> findAfter(String tenantId, long afterOffset, int limit);
+
+    Mono<Long> latestOffset(String tenantId);
+}
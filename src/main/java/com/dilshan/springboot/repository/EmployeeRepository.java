@@ -1,9 +1,30 @@
 package com.dilshan.springboot.repository;
 
 import com.dilshan.springboot.entity.Employee;
-import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
-import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-@Repository
-public interface EmployeeRepository extends ReactiveMongoRepository<Employee, String> {
+/**
+ * Employee storage of the tenant in the Reactor context. Deliberately narrow: every operation routes to
+ * the tenant's collection, so there are no inherited methods that silently fall back to the default one.
+ */
+public interface EmployeeRepository {
+
+    <S extends Employee> Mono<S> save(S employee);
+
+    Mono<Employee> findById(String id);
+
+    /**
+     * The employee's version without loading the document; empty when there is no such employee or it
+     * was saved before versioning.
+     */
+    Mono<Long> findVersionById(String id);
+
+    Flux<Employee> findAll();
+
+    Mono<Long> count();
+
+    Mono<Void> deleteById(String id);
+
+    Mono<Void> deleteAll();
 }
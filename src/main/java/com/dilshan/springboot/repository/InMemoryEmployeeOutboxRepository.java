@@ -0,0 +1,59 @@
+package com.dilshan.springboot.repository;
+
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Map backed stand-in for {@link MongoEmployeeOutboxRepository}, active with the {@code inmemory} profile.
+ * Appends are serialized per tenant so offsets become visible in order; nothing expires.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryEmployeeOutboxRepository implements EmployeeOutboxRepository {
+
+    private final Map<String, NavigableMap<Long, EmployeeChangeEvent>> tenants = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> prepare(String tenantId) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<EmployeeChangeEvent> append(String tenantId, EmployeeChangeEvent changeEvent) {
+        return Mono.fromSupplier(() -> {
+            NavigableMap<Long, EmployeeChangeEvent> changeEvents = changeEvents(tenantId);
+            synchronized (changeEvents) {
+                changeEvent.setId(new ObjectId().toHexString());
+                changeEvent.setOffset(changeEvents.isEmpty() ? 1L : changeEvents.lastKey() + 1);
+                changeEvents.put(changeEvent.getOffset(), changeEvent);
+            }
+            return changeEvent;
+        });
+    }
+
+    @Override
+    public Flux<EmployeeChangeEvent> findAfter(String tenantId, long afterOffset, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(changeEvents(tenantId).tailMap(afterOffset, false).values()).take(limit, true));
+    }
+
+    @Override
+    public Mono<Long> latestOffset(String tenantId) {
+        return Mono.fromSupplier(() -> {
+            NavigableMap<Long, EmployeeChangeEvent> changeEvents = changeEvents(tenantId);
+            return changeEvents.isEmpty() ? 0L : changeEvents.lastKey();
+        });
+    }
+
+    private NavigableMap<Long, EmployeeChangeEvent> changeEvents(String tenantId) {
+        return this.tenants.computeIfAbsent(tenantId, id -> new ConcurrentSkipListMap<>());
+    }
+}
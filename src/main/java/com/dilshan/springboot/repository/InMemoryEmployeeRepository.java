@@ -0,0 +1,71 @@
+package com.dilshan.springboot.repository;
+
+import com.dilshan.springboot.entity.Employee;
+import com.dilshan.springboot.tenant.TenantContext;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map backed stand-in for {@link EmployeeRepository}, active with the {@code inmemory} profile so the
+ * application (and the startup benchmarks) can run without a Mongo server. It implements only the
+ * tenant-aware operations the service uses, partitioned by the tenant in the Reactor context.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryEmployeeRepository implements EmployeeRepository {
+
+    private final Map<String, Map<String, Employee>> tenants = new ConcurrentHashMap<>();
+
+    @Override
+    public <S extends Employee> Mono<S> save(S entity) {
+        return employees().map(employees -> {
+            if (entity.getId() == null) {
+                entity.setId(new ObjectId().toHexString());
+            }
+            entity.setVersion(entity.getVersion() == null ? 0L : entity.getVersion() + 1);
+            employees.put(entity.getId(), entity);
+            return entity;
+        });
+    }
+
+    @Override
+    public Mono<Employee> findById(String id) {
+        return employees().mapNotNull(employees -> employees.get(id));
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return findById(id).mapNotNull(Employee::getVersion);
+    }
+
+    @Override
+    public Flux<Employee> findAll() {
+        return employees().flatMapMany(employees -> Flux.fromIterable(employees.values()));
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return employees().map(employees -> (long) employees.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return employees().doOnNext(employees -> employees.remove(id)).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return employees().doOnNext(Map::clear).then();
+    }
+
+    private Mono<Map<String, Employee>> employees() {
+        return Mono.deferContextual(contextView -> Mono.just(
+                this.tenants.computeIfAbsent(TenantContext.getTenant(contextView), tenantId -> new ConcurrentHashMap<>())));
+    }
+}
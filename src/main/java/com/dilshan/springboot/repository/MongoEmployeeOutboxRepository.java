@@ -0,0 +1,107 @@
+package com.dilshan.springboot.repository;
+
+import com.dilshan.springboot.config.OutboxProperties;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import com.dilshan.springboot.tenant.TenantBulkhead;
+import com.dilshan.springboot.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbox events live in {@code employee_outbox[_tenant]} next to the tenant's employees. Offsets come from
+ * one counter document per tenant in {@code outbox_sequences}, incremented inside the writing transaction:
+ * concurrent writers conflict on it and retry, so offsets become visible strictly in order and a reader
+ * never skips one.
+ * The unique offset index and the TTL index that expires events after {@code app.outbox.retention} are
+ * created by {@link #prepare} ahead of a tenant's first write, and at startup for the default tenant.
+ * Reads count against the tenant's {@link TenantBulkhead} budget; {@link #append} runs inside a write that
+ * already holds a slot.
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+@Slf4j
+public class MongoEmployeeOutboxRepository implements EmployeeOutboxRepository {
+
+    // outside the employee_outbox[_tenant] namespace, no tenant id can resolve to it
+    private static final String SEQUENCES_COLLECTION = "outbox_sequences";
+    private static final String OFFSET = "offset";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final OutboxProperties outboxProperties;
+    private final TenantBulkhead tenantBulkhead;
+    private final Set<String> indexedCollections = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Mono<Void> prepare(String tenantId) {
+        return ensureIndexes(collectionName(tenantId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareDefaultTenant() {
+        prepare(TenantContext.DEFAULT_TENANT).subscribe(null, ex ->
+                log.warn("Could not prepare the default tenant's outbox, retrying on its first write", ex));
+    }
+
+    @Override
+    public Mono<EmployeeChangeEvent> append(String tenantId, EmployeeChangeEvent changeEvent) {
+        Query bySequence = Query.query(Criteria.where("_id").is(tenantId));
+        return this.mongoTemplate.findAndModify(bySequence, new Update().inc(OFFSET, 1L),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, SEQUENCES_COLLECTION)
+                .flatMap(sequence -> {
+                    changeEvent.setOffset(sequence.get(OFFSET, Number.class).longValue());
+                    return this.mongoTemplate.insert(changeEvent, collectionName(tenantId));
+                });
+    }
+
+    @Override
+    public Flux<EmployeeChangeEvent> findAfter(String tenantId, long afterOffset, int limit) {
+        String collectionName = collectionName(tenantId);
+        Query afterOffsetQuery = Query.query(Criteria.where(OFFSET).gt(afterOffset))
+                .with(Sort.by(Sort.Direction.ASC, OFFSET))
+                .limit(limit);
+        return this.tenantBulkhead.limit(tenantId, ensureIndexes(collectionName)
+                .thenMany(this.mongoTemplate.find(afterOffsetQuery, EmployeeChangeEvent.class, collectionName)));
+    }
+
+    @Override
+    public Mono<Long> latestOffset(String tenantId) {
+        return this.tenantBulkhead.limit(tenantId, this.mongoTemplate.findById(tenantId, Document.class, SEQUENCES_COLLECTION))
+                .map(sequence -> sequence.get(OFFSET, Number.class).longValue())
+                .defaultIfEmpty(0L);
+    }
+
+    private Mono<Void> ensureIndexes(String collectionName) {
+        if (this.indexedCollections.contains(collectionName)) {
+            return Mono.empty();
+        }
+        ReactiveIndexOperations indexOperations = this.mongoTemplate.indexOps(collectionName);
+        return indexOperations.ensureIndex(new Index(OFFSET, Sort.Direction.ASC).unique())
+                .then(indexOperations.ensureIndex(new Index("occurredAt", Sort.Direction.ASC)
+                        .expire(this.outboxProperties.getRetention())))
+                .doOnSuccess(indexName -> this.indexedCollections.add(collectionName))
+                .then();
+    }
+
+    private String collectionName(String tenantId) {
+        return TenantContext.collectionName(this.mongoTemplate.getCollectionName(EmployeeChangeEvent.class), tenantId);
+    }
+}
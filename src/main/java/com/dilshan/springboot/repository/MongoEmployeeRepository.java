@@ -0,0 +1,118 @@
+package com.dilshan.springboot.repository;
+
+import com.dilshan.springboot.entity.Employee;
+import com.dilshan.springboot.tenant.TenantBulkhead;
+import com.dilshan.springboot.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs every operation through {@link ReactiveMongoTemplate} against {@code employees[_tenant]} of the
+ * tenant in the Reactor context, within that tenant's {@link TenantBulkhead} budget.
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class MongoEmployeeRepository implements EmployeeRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final TenantBulkhead tenantBulkhead;
+
+    @Override
+    public <S extends Employee> Mono<S> save(S employee) {
+        return Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            // creates reach here without an id, so only an update of a loaded legacy document is unversioned
+            Mono<S> savedEmployee = employee.getId() != null && employee.getVersion() == null
+                    ? saveUnversioned(employee, collectionName(tenantId))
+                    : this.mongoTemplate.save(employee, collectionName(tenantId));
+            return this.tenantBulkhead.limit(tenantId, savedEmployee);
+        });
+    }
+
+    @Override
+    public Mono<Employee> findById(String id) {
+        return Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            return this.tenantBulkhead.limit(tenantId, this.mongoTemplate.findById(id, Employee.class, collectionName(tenantId)));
+        });
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            Query byId = Query.query(Criteria.where("_id").is(id));
+            byId.fields().include("version");
+            return this.tenantBulkhead.limit(tenantId, this.mongoTemplate.findOne(byId, Employee.class, collectionName(tenantId)))
+                    .mapNotNull(Employee::getVersion);
+        });
+    }
+
+    @Override
+    public Flux<Employee> findAll() {
+        return Flux.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            return this.tenantBulkhead.limit(tenantId, this.mongoTemplate.findAll(Employee.class, collectionName(tenantId)));
+        });
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            return this.tenantBulkhead.limit(tenantId, this.mongoTemplate.count(new Query(), collectionName(tenantId)));
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            Query byId = Query.query(Criteria.where("_id").is(id));
+            return this.tenantBulkhead.limit(tenantId, this.mongoTemplate.remove(byId, Employee.class, collectionName(tenantId))).then();
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            return this.tenantBulkhead.limit(tenantId, this.mongoTemplate.remove(new Query(), collectionName(tenantId))).then();
+        });
+    }
+
+    // documents written before versioning have no version field, which Spring Data reads as new and would insert again
+    private <S extends Employee> Mono<S> saveUnversioned(S employee, String collectionName) {
+        Query unversioned = Query.query(Criteria.where("_id").is(employee.getId()).and("version").exists(false));
+        Update update = new Update()
+                .set("firstName", employee.getFirstName())
+                .set("lastName", employee.getLastName())
+                .set("email", employee.getEmail())
+                .set("version", 0L);
+        return this.mongoTemplate.updateFirst(unversioned, update, Employee.class, collectionName)
+                .flatMap(updateResult -> {
+                    if (updateResult.getMatchedCount() == 0) {
+                        // no such document yet, or a concurrent update versioned it first
+                        return this.mongoTemplate.save(employee, collectionName)
+                                .onErrorMap(DuplicateKeyException.class, ex -> new OptimisticLockingFailureException(
+                                        "Employee " + employee.getId() + " was modified concurrently", ex));
+                    }
+                    employee.setVersion(0L);
+                    return Mono.just(employee);
+                });
+    }
+
+    private String collectionName(String tenantId) {
+        return TenantContext.collectionName(this.mongoTemplate.getCollectionName(Employee.class), tenantId);
+    }
+}
@@ -1,9 +1,12 @@
 package com.dilshan.springboot.service;
 
+import com.dilshan.springboot.dto.EmployeeChangeEventDto;
 import com.dilshan.springboot.dto.EmployeeDto;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface EmployeeService {
     Mono<EmployeeDto> saveEmployee(EmployeeDto employeeDto);
 
@@ -14,4 +17,10 @@ public interface EmployeeService {
     Mono<EmployeeDto> updateEmployee(EmployeeDto employeeDto, String employeeId);
 
     Mono<Void> deleteEmployee(String employeeId);
+
+    Flux<List<EmployeeChangeEventDto>> getEmployeeChanges(String tenantId, Long afterOffset);
+
+    Mono<Long> getEmployeeVersion(String employeeId);
+
+    Mono<String> getEmployeesVersion(String tenantId);
 }
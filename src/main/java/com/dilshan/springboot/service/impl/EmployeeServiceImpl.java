@@ -1,15 +1,29 @@
 package com.dilshan.springboot.service.impl;
 
+import com.dilshan.springboot.config.OutboxProperties;
+import com.dilshan.springboot.dto.EmployeeChangeEventDto;
 import com.dilshan.springboot.dto.EmployeeDto;
 import com.dilshan.springboot.entity.Employee;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import com.dilshan.springboot.entity.EmployeeChangeType;
+import com.dilshan.springboot.mapper.EmployeeChangeEventMapper;
 import com.dilshan.springboot.mapper.EmployeeMapper;
+import com.dilshan.springboot.outbox.EmployeeChangeRelay;
+import com.dilshan.springboot.repository.EmployeeOutboxRepository;
 import com.dilshan.springboot.repository.EmployeeRepository;
 import com.dilshan.springboot.service.EmployeeService;
+import com.dilshan.springboot.tenant.TenantContext;
+import com.mongodb.MongoException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -17,12 +31,20 @@ import reactor.core.publisher.Mono;
 public class EmployeeServiceImpl implements EmployeeService {
 
     private final EmployeeRepository employeeRepository;
+    private final EmployeeOutboxRepository employeeOutboxRepository;
+    private final EmployeeChangeRelay employeeChangeRelay;
+    private final TransactionalOperator transactionalOperator;
+    private final OutboxProperties outboxProperties;
 
     @Override
     public Mono<EmployeeDto> saveEmployee(EmployeeDto employeeDto) {
         log.info("Save Employee: {}", employeeDto.toString());
-        Employee employee = EmployeeMapper.mapToEmployee(employeeDto, new Employee());
-        Mono<Employee> savedEmployee = this.employeeRepository.save(employee);
+        Mono<Employee> savedEmployee = Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            // mapped per attempt, the repository assigns the id and version to the entity it is given
+            return inTransaction(tenantId, Mono.defer(() -> this.employeeRepository.save(newEmployee(employeeDto)))
+                    .flatMap(employeeEntity -> recordChange(tenantId, EmployeeChangeType.CREATED, employeeEntity)));
+        });
         return savedEmployee.map(employeeEntity -> EmployeeMapper.mapToEmployeeDto(employeeEntity, new EmployeeDto()));
     }
 
@@ -45,11 +67,15 @@ public class EmployeeServiceImpl implements EmployeeService {
     public Mono<EmployeeDto> updateEmployee(EmployeeDto employeeDto, String employeeId) {
         log.info("Update Employee. ID: {} Employee: {}", employeeId, employeeDto.toString());
         Mono<Employee> existingEmployeeMono = this.employeeRepository.findById(employeeId);
-        Mono<Employee> updatedEmployeeMono = existingEmployeeMono.flatMap(existingEmployee -> {
-            existingEmployee.setFirstName(employeeDto.getFirstName());
-            existingEmployee.setLastName(employeeDto.getLastName());
-            existingEmployee.setEmail(employeeDto.getEmail());
-            return this.employeeRepository.save(existingEmployee);
+        Mono<Employee> updatedEmployeeMono = Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            return inTransaction(tenantId, existingEmployeeMono.flatMap(existingEmployee -> {
+                                existingEmployee.setFirstName(employeeDto.getFirstName());
+                                existingEmployee.setLastName(employeeDto.getLastName());
+                                existingEmployee.setEmail(employeeDto.getEmail());
+                                return this.employeeRepository.save(existingEmployee);
+                            })
+                            .flatMap(updatedEmployee -> recordChange(tenantId, EmployeeChangeType.UPDATED, updatedEmployee)));
         });
         return updatedEmployeeMono.map(updateEmployee -> EmployeeMapper.mapToEmployeeDto(updateEmployee, new EmployeeDto()));
     }
@@ -57,6 +83,70 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     public Mono<Void> deleteEmployee(String employeeId) {
         log.info("Delete Employee. ID: {}", employeeId);
-        return this.employeeRepository.deleteById(employeeId);
+        return Mono.deferContextual(contextView -> {
+            String tenantId = TenantContext.getTenant(contextView);
+            // read first, so deleting an unknown id records no change event
+            return inTransaction(tenantId, this.employeeRepository.findById(employeeId)
+                            .flatMap(existingEmployee -> this.employeeRepository.deleteById(employeeId)
+                                    .then(recordChange(tenantId, EmployeeChangeType.DELETED, existingEmployee))))
+                    .then();
+        });
+    }
+
+    @Override
+    public Flux<List<EmployeeChangeEventDto>> getEmployeeChanges(String tenantId, Long afterOffset) {
+        log.info("Subscribe to Employee changes. Tenant: {} After offset: {}", tenantId, afterOffset);
+        return this.employeeChangeRelay.changes(tenantId, afterOffset)
+                .map(changeEvents -> changeEvents.stream()
+                        .map(changeEvent -> EmployeeChangeEventMapper.mapToEmployeeChangeEventDto(changeEvent, new EmployeeChangeEventDto()))
+                        .toList());
+    }
+
+    @Override
+    public Mono<Long> getEmployeeVersion(String employeeId) {
+        // read from the database, so a write through any instance is seen at once
+        return this.employeeRepository.findVersionById(employeeId);
+    }
+
+    @Override
+    public Mono<String> getEmployeesVersion(String tenantId) {
+        // bumped in every write transaction, so it is the same on all instances
+        return this.employeeOutboxRepository.latestOffset(tenantId).map(String::valueOf);
+    }
+
+    // the outbox is prepared first, a transaction cannot create its collection or indexes
+    private <T> Mono<T> inTransaction(String tenantId, Mono<T> write) {
+        return this.employeeOutboxRepository.prepare(tenantId)
+                .then(Mono.defer(() -> {
+                    // every writer of a tenant conflicts on its outbox sequence, so a burst retries until a deadline
+                    long deadline = System.nanoTime() + this.outboxProperties.getTransactionRetryTimeout().toNanos();
+                    return write.as(this.transactionalOperator::transactional)
+                            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(5))
+                                    .maxBackoff(Duration.ofMillis(100))
+                                    .filter(ex -> isTransientTransactionError(ex) && System.nanoTime() < deadline));
+                }));
+    }
+
+    // a create never takes the client's id, which would update an existing employee instead of adding one
+    private static Employee newEmployee(EmployeeDto employeeDto) {
+        Employee employee = EmployeeMapper.mapToEmployee(employeeDto, new Employee());
+        employee.setId(null);
+        employee.setVersion(null);
+        return employee;
+    }
+
+    private Mono<Employee> recordChange(String tenantId, EmployeeChangeType type, Employee employee) {
+        EmployeeChangeEvent changeEvent = EmployeeChangeEventMapper.mapToEmployeeChangeEvent(type, employee, new EmployeeChangeEvent());
+        return this.employeeOutboxRepository.append(tenantId, changeEvent).thenReturn(employee);
+    }
+
+    private static boolean isTransientTransactionError(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,60 @@
+package com.dilshan.springboot.tenant;
+
+import com.dilshan.springboot.config.TenancyProperties;
+import com.dilshan.springboot.exception.TenantCapacityExceededException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the database operations each tenant has in flight, so a noisy tenant is rejected with 429
+ * instead of holding every pooled connection while the other tenants queue behind it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantBulkhead {
+
+    private final TenancyProperties tenancyProperties;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public <T> Mono<T> limit(String tenantId, Mono<T> operation) {
+        return Mono.defer(() -> {
+            acquire(tenantId);
+            return operation.doFinally(signalType -> release(tenantId));
+        });
+    }
+
+    public <T> Flux<T> limit(String tenantId, Flux<T> operation) {
+        return Flux.defer(() -> {
+            acquire(tenantId);
+            return operation.doFinally(signalType -> release(tenantId));
+        });
+    }
+
+    public int getInFlight(String tenantId) {
+        AtomicInteger tenantInFlight = this.inFlight.get(tenantId);
+        return tenantInFlight == null ? 0 : tenantInFlight.get();
+    }
+
+    // a tenant's counter only exists while it has operations in flight, so idle tenants cost nothing
+    private void acquire(String tenantId) {
+        int maxInFlight = this.tenancyProperties.getMaxInFlight(tenantId);
+        this.inFlight.compute(tenantId, (id, tenantInFlight) -> {
+            AtomicInteger counter = tenantInFlight != null ? tenantInFlight : new AtomicInteger();
+            if (counter.get() >= maxInFlight) {
+                throw new TenantCapacityExceededException(id);
+            }
+            counter.incrementAndGet();
+            return counter;
+        });
+    }
+
+    private void release(String tenantId) {
+        this.inFlight.computeIfPresent(tenantId, (id, counter) -> counter.decrementAndGet() == 0 ? null : counter);
+    }
+}
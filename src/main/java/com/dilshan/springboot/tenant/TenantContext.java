@@ -0,0 +1,57 @@
+package com.dilshan.springboot.tenant;
+
+import com.dilshan.springboot.config.TenancyProperties;
+import com.dilshan.springboot.exception.InvalidTenantException;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.regex.Pattern;
+
+/**
+ * Carries the tenant of a request through the Reactor {@link Context}. Work started without a tenant,
+ * such as direct service calls, belongs to {@link #DEFAULT_TENANT}, whose data lives in the original
+ * unprefixed collections.
+ */
+public final class TenantContext {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final String CONTEXT_KEY = TenantContext.class.getName();
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9_-]{0,31}");
+
+    private TenantContext() {
+    }
+
+    public static String resolveTenant(String tenantHeader, TenancyProperties tenancyProperties) {
+        if (tenantHeader == null || tenantHeader.isBlank()) {
+            return DEFAULT_TENANT;
+        }
+        String tenantId = tenantHeader.trim();
+        if (!TENANT_ID.matcher(tenantId).matches()) {
+            throw new InvalidTenantException(tenantId, "tenant ids are 1-32 lowercase letters, digits, '-' or '_'");
+        }
+        if (!DEFAULT_TENANT.equals(tenantId) && !tenancyProperties.isAllowUnlistedTenants()
+                && !tenancyProperties.getAllowedTenants().contains(tenantId)) {
+            throw new InvalidTenantException(tenantId, "unknown tenant");
+        }
+        return tenantId;
+    }
+
+    public static Context withTenant(Context context, String tenantId) {
+        return context.put(CONTEXT_KEY, tenantId);
+    }
+
+    public static String getTenant(ContextView contextView) {
+        return contextView.getOrDefault(CONTEXT_KEY, DEFAULT_TENANT);
+    }
+
+    public static Mono<String> currentTenant() {
+        return Mono.deferContextual(contextView -> Mono.just(getTenant(contextView)));
+    }
+
+    public static String collectionName(String baseCollection, String tenantId) {
+        return DEFAULT_TENANT.equals(tenantId) ? baseCollection : baseCollection + "_" + tenantId;
+    }
+}
@@ -0,0 +1,295 @@
+package com.dilshan.springboot;
+
+import com.dilshan.springboot.config.OutboxProperties;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import com.dilshan.springboot.entity.EmployeeChangeType;
+import com.dilshan.springboot.exception.ChangeFeedGapException;
+import com.dilshan.springboot.exception.TenantCapacityExceededException;
+import com.dilshan.springboot.exception.TooManySubscribersException;
+import com.dilshan.springboot.outbox.EmployeeChangeRelay;
+import com.dilshan.springboot.repository.EmployeeOutboxRepository;
+import com.dilshan.springboot.repository.InMemoryEmployeeOutboxRepository;
+import com.dilshan.springboot.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+public class EmployeeChangeRelayTests {
+
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+    private static final int BATCH_SIZE = 50;
+
+    private final AtomicLong fetchedEvents = new AtomicLong();
+    private final AtomicInteger rejectedReads = new AtomicInteger();
+    private final AtomicLong expiredThroughOffset = new AtomicLong();
+    private EmployeeOutboxRepository outboxRepository;
+    private EmployeeChangeRelay employeeChangeRelay;
+
+    @BeforeEach
+    void beforeEach() {
+        InMemoryEmployeeOutboxRepository inMemoryOutboxRepository = new InMemoryEmployeeOutboxRepository();
+        // counts every event read from the outbox, i.e. everything the relay could be holding on to
+        this.outboxRepository = new EmployeeOutboxRepository() {
+            @Override
+            public Mono<Void> prepare(String tenantId) {
+                return inMemoryOutboxRepository.prepare(tenantId);
+            }
+
+            @Override
+            public Mono<EmployeeChangeEvent> append(String tenantId, EmployeeChangeEvent changeEvent) {
+                return inMemoryOutboxRepository.append(tenantId, changeEvent);
+            }
+
+            @Override
+            public Flux<EmployeeChangeEvent> findAfter(String tenantId, long afterOffset, int limit) {
+                if (isRejected()) {
+                    return Flux.error(new TenantCapacityExceededException(tenantId));
+                }
+                // events up to expiredThroughOffset are gone, as if the retention had expired them
+                return inMemoryOutboxRepository.findAfter(tenantId, Math.max(afterOffset, expiredThroughOffset.get()), limit)
+                        .doOnNext(changeEvent -> fetchedEvents.incrementAndGet());
+            }
+
+            @Override
+            public Mono<Long> latestOffset(String tenantId) {
+                if (isRejected()) {
+                    return Mono.error(new TenantCapacityExceededException(tenantId));
+                }
+                return inMemoryOutboxRepository.latestOffset(tenantId);
+            }
+
+            // the next rejectedReads reads fail as if the tenant's bulkhead were full
+            private boolean isRejected() {
+                return rejectedReads.getAndUpdate(rejections -> Math.max(0, rejections - 1)) > 0;
+            }
+        };
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setBatchSize(BATCH_SIZE);
+        outboxProperties.setPollInterval(Duration.ofMillis(20));
+        outboxProperties.setMaxSubscribersPerTenant(1_000);
+        this.employeeChangeRelay = new EmployeeChangeRelay(this.outboxRepository, outboxProperties);
+    }
+
+    //JUnit test for slow change feed subscribers
+    @DisplayName("JUnit test for slow change feed subscribers")
+    @Test
+    public void givenManyStalledSubscribers_whenEventsKeepArriving_thenFetchedEventsStayBounded() throws InterruptedException {
+
+        //given - precondition or setup
+        int subscribers = 500;
+        appendEvents(5_000);
+        List<StalledSubscriber> stalledSubscribers = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            StalledSubscriber stalledSubscriber = new StalledSubscriber();
+            this.employeeChangeRelay.changes(TENANT, 0L).subscribe(stalledSubscriber);
+            stalledSubscribers.add(stalledSubscriber);
+        }
+        awaitBatches(stalledSubscribers, 1);
+
+        //when - action or the behaviour to be tested
+        appendEvents(5_000);
+        Thread.sleep(500);
+
+        //then -verify the output
+        log.info("Fetched {} events for {} stalled subscribers of a 10000 event outbox", this.fetchedEvents.get(), subscribers);
+        assertThat(this.employeeChangeRelay.getSubscribers(TENANT)).isEqualTo(subscribers);
+        assertThat(stalledSubscribers).allSatisfy(stalledSubscriber -> assertThat(stalledSubscriber.batches.get()).isEqualTo(1));
+        // the batch it requested plus at most one fetched ahead
+        assertThat(this.fetchedEvents.get()).isLessThanOrEqualTo((long) subscribers * 2 * BATCH_SIZE);
+
+        stalledSubscribers.forEach(BaseSubscriber::dispose);
+        assertThat(this.employeeChangeRelay.getSubscribers(TENANT)).isZero();
+    }
+
+    //JUnit test for concurrent change feed subscribers
+    @DisplayName("JUnit test for concurrent change feed subscribers")
+    @Test
+    public void givenManySubscribers_whenEventsAreAppendedConcurrently_thenEachReceivesAllEventsInOrder() {
+
+        //given - precondition or setup
+        int subscribers = 100;
+        int events = 3_000;
+        appendEvents(events / 2);
+
+        //when - action or the behaviour to be tested
+        Mono<List<List<Long>>> receivedOffsets = Flux.range(0, subscribers)
+                .flatMap(subscriber -> this.employeeChangeRelay.changes(TENANT, 0L)
+                        .publishOn(Schedulers.parallel(), 1)
+                        .flatMapIterable(changeEvents -> changeEvents)
+                        .map(EmployeeChangeEvent::getOffset)
+                        .take(events)
+                        .collectList(), subscribers)
+                .collectList();
+        Mono<Void> appender = Mono.fromRunnable(() -> appendEvents(events / 2)).subscribeOn(Schedulers.boundedElastic()).then();
+
+        //then -verify the output
+        List<Long> expectedOffsets = LongStream.rangeClosed(1, events).boxed().toList();
+        StepVerifier.create(Mono.zip(receivedOffsets, appender.thenReturn(true)).map(results -> results.getT1()))
+                .assertNext(offsetsPerSubscriber -> assertThat(offsetsPerSubscriber)
+                        .hasSize(subscribers)
+                        .allSatisfy(offsets -> assertThat(offsets).isEqualTo(expectedOffsets)))
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+        assertThat(this.employeeChangeRelay.getSubscribers(TENANT)).isZero();
+    }
+
+    //JUnit test for change feed reads rejected by the tenant bulkhead
+    @DisplayName("JUnit test for change feed reads rejected by the tenant bulkhead")
+    @Test
+    public void givenTenantAtCapacity_whenSubscribe_thenEventsArriveOnceReadsAreAdmitted() {
+
+        //given - precondition or setup
+        int events = 3 * BATCH_SIZE;
+        appendEvents(events);
+        AtomicBoolean firstBatch = new AtomicBoolean(true);
+
+        //when - action or the behaviour to be tested
+        Mono<List<Long>> receivedOffsets = this.employeeChangeRelay.changes(TENANT, 0L)
+                // the subscription is admitted, the reads that follow its first batch are rejected
+                .doOnNext(changeEvents -> {
+                    if (firstBatch.getAndSet(false)) {
+                        this.rejectedReads.set(5);
+                    }
+                })
+                .flatMapIterable(changeEvents -> changeEvents)
+                .map(EmployeeChangeEvent::getOffset)
+                .take(events)
+                .collectList();
+
+        //then -verify the output
+        StepVerifier.create(receivedOffsets)
+                .assertNext(offsets -> assertThat(offsets).isEqualTo(LongStream.rangeClosed(1, events).boxed().toList()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+        assertThat(this.rejectedReads.get()).isZero();
+        assertThat(this.employeeChangeRelay.getSubscribers(TENANT)).isZero();
+    }
+
+    //JUnit test for resuming the change feed after an unknown offset
+    @DisplayName("JUnit test for resuming the change feed after an unknown offset")
+    @Test
+    public void givenOffsetBeyondLatest_whenSubscribe_thenGapIsReported() {
+
+        //given - precondition or setup
+        appendEvents(10);
+
+        //when - action or the behaviour to be tested
+        Flux<List<EmployeeChangeEvent>> changes = this.employeeChangeRelay.changes(TENANT, 20L);
+
+        //then -verify the output
+        StepVerifier.create(changes)
+                .expectError(ChangeFeedGapException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(this.employeeChangeRelay.getSubscribers(TENANT)).isZero();
+    }
+
+    //JUnit test for resuming the change feed after expired events
+    @DisplayName("JUnit test for resuming the change feed after expired events")
+    @Test
+    public void givenExpiredEvents_whenResumeBeforeThem_thenGapIsReported() {
+
+        //given - precondition or setup
+        appendEvents(10);
+        this.expiredThroughOffset.set(5);
+
+        //when - action or the behaviour to be tested
+        Flux<List<EmployeeChangeEvent>> changesAfterExpired = this.employeeChangeRelay.changes(TENANT, 2L);
+        Flux<Long> changesAfterRetained = this.employeeChangeRelay.changes(TENANT, 5L)
+                .flatMapIterable(changeEvents -> changeEvents)
+                .map(EmployeeChangeEvent::getOffset)
+                .take(5);
+
+        //then -verify the output
+        StepVerifier.create(changesAfterExpired)
+                .expectError(ChangeFeedGapException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(changesAfterRetained)
+                .expectNext(6L, 7L, 8L, 9L, 10L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        this.expiredThroughOffset.set(10);
+        StepVerifier.create(this.employeeChangeRelay.changes(TENANT, 3L))
+                .expectError(ChangeFeedGapException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(this.employeeChangeRelay.getSubscribers(TENANT)).isZero();
+    }
+
+    //JUnit test for the change feed subscriber limit
+    @DisplayName("JUnit test for the change feed subscriber limit")
+    @Test
+    public void givenSubscriberLimitReached_whenSubscribe_thenRejected() {
+
+        //given - precondition or setup
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setMaxSubscribersPerTenant(1);
+        EmployeeChangeRelay limitedRelay = new EmployeeChangeRelay(this.outboxRepository, outboxProperties);
+        StalledSubscriber firstSubscriber = new StalledSubscriber();
+        limitedRelay.changes(TENANT, null).subscribe(firstSubscriber);
+
+        //when - action or the behaviour to be tested
+        Flux<?> secondSubscription = limitedRelay.changes(TENANT, null);
+
+        //then -verify the output
+        StepVerifier.create(secondSubscription)
+                .expectError(TooManySubscribersException.class)
+                .verify(Duration.ofSeconds(5));
+        firstSubscriber.dispose();
+        assertThat(limitedRelay.getSubscribers(TENANT)).isZero();
+    }
+
+    private void appendEvents(int count) {
+        for (int i = 0; i < count; i++) {
+            EmployeeChangeEvent changeEvent = new EmployeeChangeEvent();
+            changeEvent.setType(EmployeeChangeType.CREATED);
+            changeEvent.setEmployeeId("employee-" + i);
+            changeEvent.setEmployeeVersion(0L);
+            changeEvent.setOccurredAt(Instant.now());
+            this.outboxRepository.append(TENANT, changeEvent).block();
+        }
+    }
+
+    private static void awaitBatches(List<StalledSubscriber> stalledSubscribers, int batches) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (stalledSubscribers.stream().anyMatch(stalledSubscriber -> stalledSubscriber.batches.get() < batches)) {
+            assertThat(System.nanoTime()).as("subscribers received their first batch in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Requests a single batch and then stops reading, like a client whose socket never drains.
+     */
+    private static class StalledSubscriber extends BaseSubscriber<List<EmployeeChangeEvent>> {
+
+        private final AtomicInteger batches = new AtomicInteger();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(1);
+        }
+
+        @Override
+        protected void hookOnNext(List<EmployeeChangeEvent> changeEvents) {
+            this.batches.incrementAndGet();
+        }
+    }
+}
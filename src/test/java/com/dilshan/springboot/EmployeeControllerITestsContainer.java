@@ -5,16 +5,25 @@ import com.dilshan.springboot.repository.EmployeeRepository;
 import com.dilshan.springboot.service.EmployeeService;
 import com.dilshan.springboot.testContainer.AbstractContainerBaseTest;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Slf4j
@@ -29,6 +38,9 @@ public class EmployeeControllerITestsContainer extends AbstractContainerBaseTest
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
     @BeforeEach
     void beforeEach() {
         this.employeeRepository.deleteAll().block();
@@ -171,4 +183,134 @@ public class EmployeeControllerITestsContainer extends AbstractContainerBaseTest
                 .expectBody()
                 .consumeWith(entityExchangeResult -> log.info("Response Body: {}", entityExchangeResult.toString()));
     }
+
+    //Integration test for update employee api on a document saved before versioning
+    @DisplayName("Integration test for update employee api on a document saved before versioning")
+    @Test
+    public void givenEmployeeWithoutVersion_whenUpdateEmployee_thenReturnUpdatedEmployee() {
+
+        //given - precondition or setup
+        Document unversionedEmployee = new Document("firstName", "Dimmu")
+                .append("lastName", "Borgir")
+                .append("email", "666@gmail.com");
+        this.mongoTemplate.insert(unversionedEmployee, "employees").block();
+        String employeeId = unversionedEmployee.getObjectId("_id").toHexString();
+        EmployeeDto updatedEmployeeDto = EmployeeDto.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("slayer@gmail.com")
+                .build();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/id/{id}", Collections.singletonMap("id", employeeId))
+                .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                .body(Mono.just(updatedEmployeeDto), EmployeeDto.class).exchange();
+
+        //then -verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(employeeId)
+                .jsonPath("$.firstName").isEqualTo(updatedEmployeeDto.getFirstName());
+        assertThat(this.employeeRepository.count().block()).isEqualTo(1L);
+        Document storedEmployee = this.mongoTemplate.findById(employeeId, Document.class, "employees").block();
+        assertThat(storedEmployee.getString("firstName")).isEqualTo("Slayer");
+        assertThat(storedEmployee.get("version", Number.class).longValue()).isZero();
+
+        // versioned from here on, so the next update takes the regular path
+        webTestClient.put().uri("/api/employees/id/{id}", Collections.singletonMap("id", employeeId))
+                .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                .body(Mono.just(updatedEmployeeDto), EmployeeDto.class).exchange()
+                .expectStatus().isOk();
+        assertThat(this.mongoTemplate.findById(employeeId, Document.class, "employees").block()
+                .get("version", Number.class).longValue()).isEqualTo(1L);
+    }
+
+    //Integration test for save employee rest api with the id of an existing employee
+    @DisplayName("Integration test for save employee rest api with the id of an existing employee")
+    @Test
+    public void givenIdOfExistingEmployee_whenSaveEmployee_thenCreateNewEmployee() {
+
+        //given - precondition or setup
+        Document unversionedEmployee = new Document("firstName", "Dimmu")
+                .append("lastName", "Borgir")
+                .append("email", "666@gmail.com");
+        this.mongoTemplate.insert(unversionedEmployee, "employees").block();
+        String unversionedEmployeeId = unversionedEmployee.getObjectId("_id").toHexString();
+        EmployeeDto versionedEmployee = employeeService.saveEmployee(EmployeeDto.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("slayer@gmail.com")
+                .build()).block();
+        EmployeeDto employeeDto = EmployeeDto.builder()
+                .firstName("Chuck")
+                .lastName("Schuldiner")
+                .email("chuck@gmail.com")
+                .build();
+
+        //when - action or the behaviour to be tested
+        List<EmployeeDto> savedEmployees = Stream.of(unversionedEmployeeId, versionedEmployee.getId())
+                .map(existingId -> webTestClient.post().uri("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .body(Mono.just(EmployeeDto.builder()
+                                .id(existingId)
+                                .firstName(employeeDto.getFirstName())
+                                .lastName(employeeDto.getLastName())
+                                .email(employeeDto.getEmail())
+                                .build()), EmployeeDto.class).exchange()
+                        .expectStatus().isCreated()
+                        .expectBody(EmployeeDto.class)
+                        .returnResult().getResponseBody())
+                .toList();
+
+        //then -verify the output
+        assertThat(savedEmployees).extracting(EmployeeDto::getId)
+                .doesNotContain(unversionedEmployeeId, versionedEmployee.getId())
+                .doesNotHaveDuplicates();
+        assertThat(savedEmployees).extracting(EmployeeDto::getFirstName).containsOnly(employeeDto.getFirstName());
+        assertThat(this.employeeRepository.count().block()).isEqualTo(4L);
+        assertThat(this.mongoTemplate.findById(unversionedEmployeeId, Document.class, "employees").block()
+                .getString("firstName")).isEqualTo("Dimmu");
+        assertThat(this.employeeRepository.findById(versionedEmployee.getId()).block().getFirstName()).isEqualTo("Slayer");
+    }
+
+    //Integration test for conditional get employee rest api after writes through another instance
+    @DisplayName("Integration test for conditional get employee rest api after writes through another instance")
+    @Test
+    public void givenEmployeeChangedElsewhere_whenGetEmployeeWithOldETag_thenReturnCurrentState() {
+
+        //given - precondition or setup
+        EmployeeDto savedEmployee = employeeService.saveEmployee(EmployeeDto.builder()
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email("666@gmail.com")
+                .build()).block();
+        String eTag = webTestClient.get().uri("/api/employees/id/{id}", Collections.singletonMap("id", savedEmployee.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EmployeeDto.class).getResponseHeaders().getETag();
+        webTestClient.get().uri("/api/employees/id/{id}", Collections.singletonMap("id", savedEmployee.getId()))
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        // written straight to the database, as another instance would, so this instance never sees the write
+        Query byId = Query.query(Criteria.where("_id").is(savedEmployee.getId()));
+        this.mongoTemplate.updateFirst(byId, new Update().set("firstName", "Slayer").inc("version", 1L), "employees").block();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec updatedResponse = webTestClient.get().uri("/api/employees/id/{id}", Collections.singletonMap("id", savedEmployee.getId()))
+                .ifNoneMatch(eTag)
+                .exchange();
+
+        //then -verify the output
+        updatedResponse.expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"v1\"")
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Slayer");
+        this.mongoTemplate.remove(byId, "employees").block();
+        webTestClient.get().uri("/api/employees/id/{id}", Collections.singletonMap("id", savedEmployee.getId()))
+                .ifNoneMatch("W/\"v1\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+    }
 }
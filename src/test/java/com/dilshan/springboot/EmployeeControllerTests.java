@@ -1,29 +1,39 @@
 package com.dilshan.springboot;
 
 import com.dilshan.springboot.controller.EmployeeController;
+import com.dilshan.springboot.dto.EmployeeChangeEventDto;
 import com.dilshan.springboot.dto.EmployeeDto;
+import com.dilshan.springboot.entity.EmployeeChangeType;
+import com.dilshan.springboot.exception.ChangeFeedGapException;
 import com.dilshan.springboot.service.EmployeeService;
+import com.dilshan.springboot.tenant.TenantContext;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.*;
 
 @ExtendWith(SpringExtension.class)
-@WebFluxTest(controllers = EmployeeController.class)
+@WebFluxTest(controllers = EmployeeController.class, properties = "app.outbox.heartbeat-interval=100ms")
 @Slf4j
 public class EmployeeControllerTests {
 
@@ -112,16 +122,129 @@ public class EmployeeControllerTests {
         Flux<EmployeeDto> employeesFlux = Flux.fromIterable(List.of(employeeDto, employeeDto_2, employeeDto_3));
         given(employeeService.getAllEmployees())
                 .willReturn(employeesFlux);
+        given(employeeService.getEmployeesVersion(TenantContext.DEFAULT_TENANT))
+                .willReturn(Mono.just("3"));
         //when - action or the behaviour to be tested
         WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/all")
                 .accept(MediaType.APPLICATION_JSON).exchange();
         //then -verify the output
         response.expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"c3\"")
+                .expectHeader().valueEquals("Vary", "X-Tenant-Id, Accept-Encoding")
                 .expectBodyList(EmployeeDto.class)
                 .consumeWith(entityExchangeResult -> log.info("Response Body: {}", entityExchangeResult.toString()))
                 .hasSize(3);
     }
 
+    //JUnit test for conditional get employee rest api
+    @DisplayName("JUnit test for conditional get employee rest api")
+    @Test
+    public void givenUnchangedEmployee_whenGetEmployeeWithMatchingETag_thenReturnNotModified() {
+
+        //given - precondition or setup
+        String employeeId = "6609a4498e5ad3506be64dd4";
+        given(employeeService.getEmployeeVersion(employeeId))
+                .willReturn(Mono.just(2L));
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/id/{id}", Collections.singletonMap("id", employeeId))
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch("W/\"v2\"")
+                .exchange();
+        //then -verify the output
+        response.expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "W/\"v2\"")
+                .expectHeader().valueEquals("Vary", "X-Tenant-Id, Accept-Encoding")
+                .expectBody().isEmpty();
+        then(employeeService).should(never()).getEmployeeById(employeeId);
+    }
+
+    //JUnit test for get employee rest api with a stale ETag
+    @DisplayName("JUnit test for get employee rest api with a stale ETag")
+    @Test
+    public void givenStaleETag_whenGetEmployee_thenReturnEmployeeWithCurrentETag() {
+
+        //given - precondition or setup
+        String employeeId = "6609a4498e5ad3506be64dd4";
+        EmployeeDto employeeDto = EmployeeDto.builder()
+                .id(employeeId)
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email("666@gmail.com")
+                .version(3L)
+                .build();
+        given(employeeService.getEmployeeVersion(employeeId))
+                .willReturn(Mono.just(3L));
+        given(employeeService.getEmployeeById(employeeId))
+                .willReturn(Mono.just(employeeDto));
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/id/{id}", Collections.singletonMap("id", employeeId))
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch("\"v2\"")
+                .exchange();
+        //then -verify the output
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"v3\"")
+                .expectHeader().cacheControl(CacheControl.noCache())
+                .expectBody()
+                .consumeWith(entityExchangeResult -> log.info("Response Body: {}", entityExchangeResult.toString()))
+                .jsonPath("$.firstName").isEqualTo(employeeDto.getFirstName())
+                .jsonPath("$.version").doesNotExist();
+    }
+
+    //JUnit test for conditional get all employees api
+    @DisplayName("JUnit test for conditional get all employees api")
+    @Test
+    public void givenUnchangedEmployees_whenGetAllEmployeesWithMatchingETag_thenReturnNotModified() {
+
+        //given - precondition or setup
+        given(employeeService.getEmployeesVersion(TenantContext.DEFAULT_TENANT))
+                .willReturn(Mono.just("3"));
+        given(employeeService.getAllEmployees())
+                .willReturn(Flux.error(new IllegalStateException("employees must not be queried")));
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/all")
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch("W/\"c3\"")
+                .exchange();
+        //then -verify the output
+        response.expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    //JUnit test for get employee rest api with an invalid tenant
+    @DisplayName("JUnit test for get employee rest api with an invalid tenant")
+    @Test
+    public void givenInvalidTenantHeader_whenGetEmployee_thenReturnBadRequest() {
+
+        //given - precondition or setup
+        String employeeId = "6609a4498e5ad3506be64dd4";
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/id/{id}", Collections.singletonMap("id", employeeId))
+                .accept(MediaType.APPLICATION_JSON)
+                .header(TenantContext.TENANT_HEADER, "../admin")
+                .exchange();
+        //then -verify the output
+        response.expectStatus().isBadRequest();
+        then(employeeService).should(never()).getEmployeeById(employeeId);
+    }
+
+    //JUnit test for get all employees rest api with a tenant that is not configured
+    @DisplayName("JUnit test for get all employees rest api with a tenant that is not configured")
+    @Test
+    public void givenUnlistedTenantHeader_whenGetAllEmployees_thenReturnBadRequest() {
+
+        //given - precondition or setup
+        String tenantId = "unlisted";
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/all")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(TenantContext.TENANT_HEADER, tenantId)
+                .exchange();
+        //then -verify the output
+        response.expectStatus().isBadRequest();
+        then(employeeService).should(never()).getEmployeesVersion(tenantId);
+    }
+
     //JUnit test for update employee api
     @DisplayName("JUnit test for update employee api")
     @Test
@@ -169,4 +292,79 @@ public class EmployeeControllerTests {
                 .expectBody()
                 .consumeWith(entityExchangeResult -> log.info("Response Body: {}", entityExchangeResult.toString()));
     }
+
+    //JUnit test for resuming the employee change feed
+    @DisplayName("JUnit test for resuming the employee change feed")
+    @Test
+    public void givenLastEventId_whenGetEmployeeChanges_thenStreamBatchesAfterIt() {
+
+        //given - precondition or setup
+        List<EmployeeChangeEventDto> changeEvents = List.of(
+                EmployeeChangeEventDto.builder().offset(42).type(EmployeeChangeType.CREATED).employeeId("6609a4498e5ad3506be64dd4").version(0L).build(),
+                EmployeeChangeEventDto.builder().offset(43).type(EmployeeChangeType.DELETED).employeeId("6609a4498e5ad3506be64dd4").version(0L).build());
+        given(employeeService.getEmployeeChanges(TenantContext.DEFAULT_TENANT, 41L))
+                .willReturn(Flux.just(changeEvents));
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/changes?after=7")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "41")
+                .exchange();
+
+        //then -verify the output
+        response.expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBody(String.class)
+                .consumeWith(entityExchangeResult -> assertThat(entityExchangeResult.getResponseBody())
+                        .contains("id:43", "event:employee-changes", "\"offset\":42", "\"type\":\"DELETED\""));
+    }
+
+    //JUnit test for resuming the employee change feed across a gap
+    @DisplayName("JUnit test for resuming the employee change feed across a gap")
+    @Test
+    public void givenExpiredLastEventId_whenGetEmployeeChanges_thenStreamResetEvent() {
+
+        //given - precondition or setup
+        given(employeeService.getEmployeeChanges(TenantContext.DEFAULT_TENANT, 41L))
+                .willReturn(Flux.error(new ChangeFeedGapException(TenantContext.DEFAULT_TENANT, 41L)));
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "41")
+                .exchange();
+
+        //then -verify the output
+        response.expectStatus().isOk()
+                .expectBody(String.class)
+                .consumeWith(entityExchangeResult -> assertThat(entityExchangeResult.getResponseBody())
+                        .contains("event:reset", "data:[]")
+                        .doesNotContain("id:"));
+    }
+
+    //JUnit test for keepalive comments on an idle employee change feed
+    @DisplayName("JUnit test for keepalive comments on an idle employee change feed")
+    @Test
+    public void givenNoChanges_whenGetEmployeeChanges_thenStreamKeepaliveComments() {
+
+        //given - precondition or setup
+        given(employeeService.getEmployeeChanges(TenantContext.DEFAULT_TENANT, null))
+                .willReturn(Flux.never());
+
+        //when - action or the behaviour to be tested
+        Flux<ServerSentEvent<String>> response = webTestClient.get().uri("/api/employees/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .getResponseBody();
+
+        //then -verify the output
+        StepVerifier.create(response.take(2))
+                .assertNext(serverSentEvent -> assertThat(serverSentEvent.comment()).isEqualTo("keepalive"))
+                .assertNext(serverSentEvent -> assertThat(serverSentEvent.comment()).isEqualTo("keepalive"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
 }
@@ -0,0 +1,158 @@
+package com.dilshan.springboot;
+
+import com.dilshan.springboot.dto.EmployeeDto;
+import com.dilshan.springboot.entity.Employee;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import com.dilshan.springboot.entity.EmployeeChangeType;
+import com.dilshan.springboot.repository.EmployeeOutboxRepository;
+import com.dilshan.springboot.repository.EmployeeRepository;
+import com.dilshan.springboot.tenant.TenantContext;
+import com.dilshan.springboot.testContainer.AbstractContainerBaseTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.willReturn;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Slf4j
+public class EmployeeOutboxITestsContainer extends AbstractContainerBaseTest {
+
+    private static final int WRITES = 300;
+    private static final int CONCURRENCY = 32;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @SpyBean
+    private EmployeeOutboxRepository employeeOutboxRepository;
+
+    private WebClient webClient;
+
+    @BeforeEach
+    void beforeEach() {
+        this.mongoTemplate.getCollectionNames()
+                .filter(collectionName -> collectionName.startsWith("employee") || collectionName.equals("outbox_sequences"))
+                .flatMap(this.mongoTemplate::dropCollection)
+                .blockLast();
+        this.webClient = WebClient.create("http://localhost:" + this.port + "/api/employees");
+    }
+
+    //Integration test for concurrent writes of one tenant
+    @DisplayName("Integration test for concurrent writes of one tenant")
+    @Test
+    public void givenBurstOfWritesForOneTenant_whenSaveEmployees_thenAllCommitWithContiguousOffsets() {
+
+        //given - precondition or setup
+        Flux<Integer> writes = Flux.range(0, WRITES);
+
+        //when - action or the behaviour to be tested
+        Map<Integer, Long> statusCounts = writes
+                .flatMap(index -> this.webClient.post()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(employeeDto(index))
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value())), CONCURRENCY)
+                .collect(Collectors.groupingBy(status -> status, Collectors.counting()))
+                .block(Duration.ofMinutes(2));
+
+        //then -verify the output
+        log.info("Statuses of {} concurrent writes: {}", WRITES, statusCounts);
+        assertThat(statusCounts).containsOnlyKeys(HttpStatus.CREATED.value());
+        List<Employee> employees = this.employeeRepository.findAll().collectList().block();
+        List<EmployeeChangeEvent> changeEvents = this.employeeOutboxRepository
+                .findAfter(TenantContext.DEFAULT_TENANT, 0, WRITES * 2).collectList().block();
+        assertThat(employees).hasSize(WRITES);
+        assertThat(changeEvents).extracting(EmployeeChangeEvent::getOffset)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, WRITES).boxed().toList());
+        assertThat(changeEvents).extracting(EmployeeChangeEvent::getEmployeeId)
+                .containsExactlyInAnyOrderElementsOf(employees.stream().map(Employee::getId).toList());
+        assertThat(this.employeeOutboxRepository.latestOffset(TenantContext.DEFAULT_TENANT).block()).isEqualTo(WRITES);
+    }
+
+    //Integration test for rolling back a save when its change event fails
+    @DisplayName("Integration test for rolling back a save when its change event fails")
+    @Test
+    public void givenFailingOutbox_whenSaveEmployee_thenEmployeeIsRolledBack() {
+
+        //given - precondition or setup
+        willReturn(Mono.error(new IllegalStateException("outbox unavailable")))
+                .given(this.employeeOutboxRepository).append(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+
+        //when - action or the behaviour to be tested
+        Integer status = this.webClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeDto(0))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block();
+
+        //then -verify the output
+        assertThat(status).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        assertThat(this.employeeRepository.count().block()).isZero();
+        assertThat(this.employeeOutboxRepository.latestOffset(TenantContext.DEFAULT_TENANT).block()).isZero();
+    }
+
+    //Integration test for rolling back an update when its change event fails
+    @DisplayName("Integration test for rolling back an update when its change event fails")
+    @Test
+    public void givenFailingOutbox_whenUpdateEmployee_thenEmployeeIsUnchanged() {
+
+        //given - precondition or setup
+        EmployeeDto savedEmployee = this.webClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeDto(0))
+                .retrieve()
+                .bodyToMono(EmployeeDto.class)
+                .block();
+        willReturn(Mono.error(new IllegalStateException("outbox unavailable")))
+                .given(this.employeeOutboxRepository).append(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+
+        //when - action or the behaviour to be tested
+        Integer status = this.webClient.put().uri("/id/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeDto(1))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block();
+
+        //then -verify the output
+        assertThat(status).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        Employee storedEmployee = this.employeeRepository.findById(savedEmployee.getId()).block();
+        assertThat(storedEmployee.getFirstName()).isEqualTo(savedEmployee.getFirstName());
+        assertThat(storedEmployee.getVersion()).isZero();
+        List<EmployeeChangeEvent> changeEvents = this.employeeOutboxRepository
+                .findAfter(TenantContext.DEFAULT_TENANT, 0, 10).collectList().block();
+        assertThat(changeEvents).extracting(EmployeeChangeEvent::getType).containsExactly(EmployeeChangeType.CREATED);
+    }
+
+    private static EmployeeDto employeeDto(int index) {
+        return EmployeeDto.builder()
+                .firstName("First" + index)
+                .lastName("Last" + index)
+                .email("employee" + index + "@gmail.com")
+                .build();
+    }
+}
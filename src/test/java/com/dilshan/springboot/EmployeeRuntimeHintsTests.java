@@ -0,0 +1,40 @@
+package com.dilshan.springboot;
+
+import com.dilshan.springboot.config.EmployeeRuntimeHints;
+import com.dilshan.springboot.dto.EmployeeDto;
+import com.dilshan.springboot.entity.Employee;
+import com.dilshan.springboot.entity.EmployeeChangeEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeRuntimeHintsTests {
+
+    //JUnit test for the native image reflection hints
+    @DisplayName("JUnit test for the native image reflection hints")
+    @Test
+    public void givenEmployeeRuntimeHints_whenRegisterHints_thenEmployeeTypesAreReflective() throws NoSuchMethodException {
+
+        //given - precondition or setup
+        RuntimeHints hints = new RuntimeHints();
+
+        //when - action or the behaviour to be tested
+        new EmployeeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        //then -verify the output
+        assertThat(RuntimeHintsPredicates.reflection().onType(Employee.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(EmployeeChangeEvent.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(EmployeeDto.class.getMethod("getFirstName")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(EmployeeDto.class.getMethod("setEmail", String.class)))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,181 @@
+package com.dilshan.springboot;
+
+import com.dilshan.springboot.dto.EmployeeDto;
+import com.dilshan.springboot.tenant.TenantBulkhead;
+import com.dilshan.springboot.tenant.TenantContext;
+import com.dilshan.springboot.testContainer.AbstractContainerBaseTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.tenancy.max-in-flight-per-tenant=" + EmployeeTenantIsolationITestsContainer.MAX_IN_FLIGHT,
+                "app.tenancy.allow-unlisted-tenants=true"})
+@Slf4j
+public class EmployeeTenantIsolationITestsContainer extends AbstractContainerBaseTest {
+
+    static final int MAX_IN_FLIGHT = 8;
+    private static final int TENANTS = 25;
+    private static final String NOISY_TENANT = "noisy";
+    // above the 100 connections the Mongo driver pools by default, so an unbounded tenant would hold all of them
+    private static final int NOISY_CONCURRENCY = 256;
+    private static final int QUIET_READS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private TenantBulkhead tenantBulkhead;
+
+    private WebClient webClient;
+
+    @BeforeEach
+    void beforeEach() {
+        this.mongoTemplate.getCollectionNames()
+                .filter(collectionName -> collectionName.startsWith("employees"))
+                .flatMap(this.mongoTemplate::dropCollection)
+                .blockLast();
+        this.webClient = WebClient.create("http://localhost:" + this.port + "/api/employees");
+    }
+
+    //Integration test for tenant data isolation
+    @DisplayName("Integration test for tenant data isolation")
+    @Test
+    public void givenEmployeesOfManyTenants_whenGetAllEmployees_thenEachTenantSeesOnlyItsOwn() {
+
+        //given - precondition or setup
+        Flux.range(0, TENANTS)
+                .flatMap(tenant -> Flux.range(0, tenant + 1).concatMap(index -> saveEmployee(tenantId(tenant), index)))
+                .blockLast(Duration.ofMinutes(1));
+
+        //when - action or the behaviour to be tested
+        Map<String, Long> employeesPerTenant = Flux.range(0, TENANTS)
+                .flatMap(tenant -> getAllEmployees(tenantId(tenant))
+                        .map(employees -> Map.entry(tenantId(tenant), (long) employees.size())))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block(Duration.ofMinutes(1));
+
+        //then -verify the output
+        for (int tenant = 0; tenant < TENANTS; tenant++) {
+            assertThat(employeesPerTenant).containsEntry(tenantId(tenant), (long) tenant + 1);
+        }
+        assertThat(getAllEmployees(TenantContext.DEFAULT_TENANT).block()).isEmpty();
+    }
+
+    //Integration test for tenant capacity isolation
+    @DisplayName("Integration test for tenant capacity isolation")
+    @Test
+    public void givenNoisyTenant_whenQuietTenantsRead_thenNoisyTenantIsCappedAndQuietTenantsAreServed() {
+
+        //given - precondition or setup
+        Flux.range(0, 500).flatMap(index -> saveEmployee(NOISY_TENANT, index), 4).blockLast(Duration.ofMinutes(1));
+        Map<String, String> employeeIdPerTenant = Flux.range(0, TENANTS)
+                .flatMap(tenant -> saveEmployee(tenantId(tenant), 0).map(saved -> Map.entry(tenantId(tenant), saved.getId())))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block(Duration.ofMinutes(1));
+        // a warm-up burst, so neither run below pays for the first rejections
+        noisyStatuses(500).block(Duration.ofMinutes(1));
+        // the same reads without the noisy tenant, only logged for comparison
+        Map<String, Long> baselineP99PerTenant = quietLatencies(employeeIdPerTenant).block(Duration.ofMinutes(1))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> p99(entry.getValue())));
+
+        //when - action or the behaviour to be tested
+        AtomicInteger maxNoisyInFlight = new AtomicInteger();
+        Disposable inFlightSampler = Flux.interval(Duration.ofMillis(1))
+                .subscribe(tick -> maxNoisyInFlight.accumulateAndGet(this.tenantBulkhead.getInFlight(NOISY_TENANT), Math::max));
+        Tuple2<List<Integer>, Map<String, List<Tuple2<Long, Integer>>>> results =
+                Mono.zip(noisyStatuses(1_000), quietLatencies(employeeIdPerTenant)).block(Duration.ofMinutes(2));
+        inFlightSampler.dispose();
+
+        //then -verify the output
+        Map<Integer, Long> noisyStatusCounts = results.getT1().stream()
+                .collect(Collectors.groupingBy(status -> status, Collectors.counting()));
+        log.info("Noisy tenant statuses: {}, most operations in flight: {}", noisyStatusCounts, maxNoisyInFlight.get());
+        assertThat(noisyStatusCounts).containsKey(HttpStatus.TOO_MANY_REQUESTS.value());
+        // sampled, so a low peak could be missed, but a breach of the cap shows up on a single sample
+        assertThat(maxNoisyInFlight.get()).isBetween(1, MAX_IN_FLIGHT);
+
+        assertThat(results.getT2()).hasSize(TENANTS);
+        results.getT2().forEach((tenantId, latencies) -> {
+            // latencies depend on the machine, they are logged but not asserted
+            log.info("Tenant {} latency p99: {} ms, without the noisy tenant: {} ms", tenantId, p99(latencies), baselineP99PerTenant.get(tenantId));
+            assertThat(latencies).hasSize(QUIET_READS)
+                    .extracting(Tuple2::getT2).containsOnly(HttpStatus.OK.value());
+        });
+    }
+
+    private Mono<List<Integer>> noisyStatuses(int requests) {
+        return Flux.range(0, requests)
+                .flatMap(index -> this.webClient.get().uri("/all")
+                        .header(TenantContext.TENANT_HEADER, NOISY_TENANT)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value())), NOISY_CONCURRENCY)
+                .collectList();
+    }
+
+    private Mono<Map<String, List<Tuple2<Long, Integer>>>> quietLatencies(Map<String, String> employeeIdPerTenant) {
+        return Flux.fromIterable(employeeIdPerTenant.entrySet())
+                .flatMap(entry -> Flux.range(0, QUIET_READS)
+                        .concatMap(index -> this.webClient.get().uri("/id/{id}", entry.getValue())
+                                .header(TenantContext.TENANT_HEADER, entry.getKey())
+                                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                                .elapsed())
+                        .collectList()
+                        .map(latencies -> Map.entry(entry.getKey(), latencies)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private static long p99(List<Tuple2<Long, Integer>> latencies) {
+        List<Long> sorted = latencies.stream().map(Tuple2::getT1).sorted().toList();
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    private Mono<EmployeeDto> saveEmployee(String tenantId, int index) {
+        EmployeeDto employeeDto = EmployeeDto.builder()
+                .firstName("First" + index)
+                .lastName(tenantId)
+                .email(tenantId + "-" + index + "@gmail.com")
+                .build();
+        return this.webClient.post()
+                .header(TenantContext.TENANT_HEADER, tenantId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeDto)
+                .retrieve()
+                .bodyToMono(EmployeeDto.class);
+    }
+
+    private Mono<List<EmployeeDto>> getAllEmployees(String tenantId) {
+        return this.webClient.get().uri("/all")
+                .header(TenantContext.TENANT_HEADER, tenantId)
+                .retrieve()
+                .bodyToFlux(EmployeeDto.class)
+                .collectList();
+    }
+
+    private static String tenantId(int tenant) {
+        return "tenant-" + tenant;
+    }
+}
@@ -0,0 +1,113 @@
+package com.dilshan.springboot;
+
+import com.dilshan.springboot.dto.EmployeeDto;
+import com.dilshan.springboot.repository.EmployeeRepository;
+import com.dilshan.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.http.client.HttpClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.server.tuning.compression.min-response-size=2KB")
+@ActiveProfiles("inmemory")
+public class NettyServerCompressionTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void beforeEach() {
+        this.employeeRepository.deleteAll().block();
+        // a client without decompression, so the Content-Encoding of the response stays visible
+        this.webTestClient = WebTestClient.bindToServer(new ReactorClientHttpConnector(HttpClient.create()))
+                .baseUrl("http://localhost:" + this.port)
+                .build();
+    }
+
+    //Integration test for compressing a response above the size threshold
+    @DisplayName("Integration test for compressing a response above the size threshold")
+    @Test
+    public void givenResponseAboveThreshold_whenGetEmployee_thenResponseIsCompressed() {
+
+        //given - precondition or setup
+        EmployeeDto savedEmployee = this.employeeService.saveEmployee(employeeDto("A".repeat(3000))).block();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange();
+
+        //then -verify the output
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, "X-Tenant-Id, Accept-Encoding")
+                .expectHeader().valueMatches(HttpHeaders.ETAG, "W/\".*\"");
+    }
+
+    //Integration test for not compressing a response below the size threshold
+    @DisplayName("Integration test for not compressing a response below the size threshold")
+    @Test
+    public void givenResponseBelowThreshold_whenGetEmployee_thenResponseIsNotCompressed() {
+
+        //given - precondition or setup
+        EmployeeDto savedEmployee = this.employeeService.saveEmployee(employeeDto("Dimmu")).block();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange();
+
+        //then -verify the output
+        response.expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.VARY, "X-Tenant-Id, Accept-Encoding")
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Dimmu");
+    }
+
+    //Integration test for not compressing a response of an excluded mime type
+    @DisplayName("Integration test for not compressing a response of an excluded mime type")
+    @Test
+    public void givenExcludedMimeType_whenGetResponse_thenResponseIsNotCompressed() {
+
+        //given - precondition or setup
+        String firstName = "A".repeat(3000);
+        this.employeeService.saveEmployee(employeeDto(firstName)).block();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/all")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        //then -verify the output
+        response.expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.VARY, "X-Tenant-Id");
+    }
+
+    private static EmployeeDto employeeDto(String firstName) {
+        return EmployeeDto.builder()
+                .firstName(firstName)
+                .lastName("Borgir")
+                .email("666@gmail.com")
+                .build();
+    }
+}
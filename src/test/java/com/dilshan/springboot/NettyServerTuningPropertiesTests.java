@@ -0,0 +1,71 @@
+package com.dilshan.springboot;
+
+import com.dilshan.springboot.config.NettyServerTuningProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NettyServerTuningPropertiesTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+            .withUserConfiguration(TuningConfiguration.class);
+
+    //JUnit test for valid server tuning settings
+    @DisplayName("JUnit test for valid server tuning settings")
+    @Test
+    public void givenValidTuningSettings_whenStartContext_thenPropertiesAreBound() {
+
+        //given - precondition or setup
+        ApplicationContextRunner runner = this.contextRunner.withPropertyValues(
+                "app.server.tuning.compression.enabled=true",
+                "app.server.tuning.compression.min-response-size=1KB",
+                "app.server.tuning.event-loop.worker-threads=4",
+                "app.server.tuning.allocator.enabled=true",
+                "app.server.tuning.allocator.page-size=16384",
+                "app.server.tuning.connection.idle-timeout=30s");
+
+        //when - action or the behaviour to be tested
+        runner.run(context -> {
+
+            //then -verify the output
+            assertThat(context).hasNotFailed();
+            NettyServerTuningProperties properties = context.getBean(NettyServerTuningProperties.class);
+            assertThat(properties.getCompression().getMinResponseSize().toBytes()).isEqualTo(1024);
+            assertThat(properties.getEventLoop().getWorkerThreads()).isEqualTo(4);
+            assertThat(properties.getAllocator().getPageSize()).isEqualTo(16384);
+        });
+    }
+
+    //JUnit test for invalid server tuning settings
+    @DisplayName("JUnit test for invalid server tuning settings")
+    @Test
+    public void givenInvalidTuningSettings_whenStartContext_thenStartupFails() {
+
+        //given - precondition or setup
+        ApplicationContextRunner runner = this.contextRunner.withPropertyValues(
+                "app.server.tuning.allocator.enabled=true",
+                "app.server.tuning.allocator.page-size=10000");
+
+        //when - action or the behaviour to be tested
+        runner.run(context -> {
+
+            //then -verify the output
+            assertThat(context).hasFailed();
+            assertThat(context.getStartupFailure())
+                    .rootCause()
+                    .hasMessageContaining("page-size must be a power of two");
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(NettyServerTuningProperties.class)
+    static class TuningConfiguration {
+    }
+}
@@ -9,7 +9,7 @@ public abstract class AbstractContainerBaseTest {
     static final MongoDBContainer MONGO_DB_CONTAINER;
 
     static {
-        MONGO_DB_CONTAINER = new MongoDBContainer()
+        MONGO_DB_CONTAINER = new MongoDBContainer("mongo:7.0")
                 .withExposedPorts(27017);
         MONGO_DB_CONTAINER.start();
     }